@@ -1,6 +1,10 @@
 package ch.vaudoise.vaudoiseapi.exercice.config;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Vaudoiseapi.
@@ -13,12 +17,54 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final ContractCostTotal contractCostTotal = new ContractCostTotal();
+
+    private final ContractExport contractExport = new ContractExport();
+
+    private final ClientInfoExport clientInfoExport = new ClientInfoExport();
+
+    private final ContractArchive contractArchive = new ContractArchive();
+
+    private final Cache cache = new Cache();
+
+    private final UserPurge userPurge = new UserPurge();
+
+    private final MailOutbox mailOutbox = new MailOutbox();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public ContractCostTotal getContractCostTotal() {
+        return contractCostTotal;
+    }
+
+    public ContractExport getContractExport() {
+        return contractExport;
+    }
+
+    public ClientInfoExport getClientInfoExport() {
+        return clientInfoExport;
+    }
+
+    public ContractArchive getContractArchive() {
+        return contractArchive;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public UserPurge getUserPurge() {
+        return userPurge;
+    }
+
+    public MailOutbox getMailOutbox() {
+        return mailOutbox;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +79,365 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    public static class ContractCostTotal {
+
+        /**
+         * Delay in milliseconds between two sweeps of the contracts whose end date has passed.
+         */
+        private Long sweepDelay = 60000L;
+
+        /**
+         * Maximum number of contracts untracked by one sweep statement.
+         */
+        private Integer sweepBatchSize = 1000;
+
+        /**
+         * Cron expression of the reconciliation of the running totals against the live sums.
+         */
+        private String reconcileCron = "0 30 2 * * ?";
+
+        /**
+         * Whether the reconciliation overwrites the running totals it finds out of sync.
+         */
+        private Boolean reconcileRepair = true;
+
+        public Long getSweepDelay() {
+            return sweepDelay;
+        }
+
+        public void setSweepDelay(Long sweepDelay) {
+            this.sweepDelay = sweepDelay;
+        }
+
+        public Integer getSweepBatchSize() {
+            return sweepBatchSize;
+        }
+
+        public void setSweepBatchSize(Integer sweepBatchSize) {
+            this.sweepBatchSize = sweepBatchSize;
+        }
+
+        public String getReconcileCron() {
+            return reconcileCron;
+        }
+
+        public void setReconcileCron(String reconcileCron) {
+            this.reconcileCron = reconcileCron;
+        }
+
+        public Boolean getReconcileRepair() {
+            return reconcileRepair;
+        }
+
+        public void setReconcileRepair(Boolean reconcileRepair) {
+            this.reconcileRepair = reconcileRepair;
+        }
+    }
+
+    public static class ContractExport {
+
+        /**
+         * JDBC fetch size of the export query, also the number of contracts kept managed at once.
+         */
+        private Integer fetchSize = 500;
+
+        public Integer getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(Integer fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+    }
+
+    public static class ClientInfoExport {
+
+        /**
+         * JDBC fetch size of the export query, also the number of client infos kept managed at once.
+         */
+        private Integer fetchSize = 500;
+
+        public Integer getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(Integer fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+    }
+    public static class ContractArchive {
+
+        /**
+         * Cron expression of the archival of the ended contracts.
+         */
+        private String cron = "0 0 3 * * ?";
+
+        /**
+         * How long an ended contract stays in the live contract table before it is archived.
+         */
+        private Duration retention = Duration.ofDays(730);
+
+        /**
+         * Maximum number of contracts archived by one statement.
+         */
+        private Integer batchSize = 1000;
+
+        public String getCron() {
+            return cron;
+        }
+
+        public void setCron(String cron) {
+            this.cron = cron;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+
+        public Integer getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(Integer batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    public static class Cache {
+
+        /**
+         * Directory of the disk tiers, required as soon as a region has a disk tier.
+         */
+        private String diskPath;
+
+        /**
+         * Maximum share of the maximum heap that the heap tiers sized in bytes may take together.
+         */
+        private Double maxHeapRatio = 0.5;
+
+        /**
+         * Configuration of the cache regions by name, the simple class name for the entity regions. A region left out
+         * keeps the {@code jhipster.cache.ehcache} defaults.
+         */
+        private final Map<String, Region> regions = new LinkedHashMap<>();
+
+        public String getDiskPath() {
+            return diskPath;
+        }
+
+        public void setDiskPath(String diskPath) {
+            this.diskPath = diskPath;
+        }
+
+        public Double getMaxHeapRatio() {
+            return maxHeapRatio;
+        }
+
+        public void setMaxHeapRatio(Double maxHeapRatio) {
+            this.maxHeapRatio = maxHeapRatio;
+        }
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public static class Region {
+
+            /**
+             * Number of entries of the heap tier, exclusive with {@code heap-size}.
+             */
+            private Long heapEntries;
+
+            /**
+             * Size of the heap tier, measured by walking the cached objects, exclusive with {@code heap-entries}.
+             */
+            private DataSize heapSize;
+
+            /**
+             * Size of the off-heap tier, outside of the garbage collected heap, if any.
+             */
+            private DataSize offHeapSize;
+
+            /**
+             * Size of the disk tier, if any.
+             */
+            private DataSize diskSize;
+
+            /**
+             * Time an entry stays in the region after its creation or last update, exclusive with {@code time-to-idle}.
+             */
+            private Duration timeToLive;
+
+            /**
+             * Time an entry stays in the region after its last access, exclusive with {@code time-to-live}.
+             */
+            private Duration timeToIdle;
+
+            public Long getHeapEntries() {
+                return heapEntries;
+            }
+
+            public void setHeapEntries(Long heapEntries) {
+                this.heapEntries = heapEntries;
+            }
+
+            public DataSize getHeapSize() {
+                return heapSize;
+            }
+
+            public void setHeapSize(DataSize heapSize) {
+                this.heapSize = heapSize;
+            }
+
+            public DataSize getOffHeapSize() {
+                return offHeapSize;
+            }
+
+            public void setOffHeapSize(DataSize offHeapSize) {
+                this.offHeapSize = offHeapSize;
+            }
+
+            public DataSize getDiskSize() {
+                return diskSize;
+            }
+
+            public void setDiskSize(DataSize diskSize) {
+                this.diskSize = diskSize;
+            }
+
+            public Duration getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Duration timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+
+            public Duration getTimeToIdle() {
+                return timeToIdle;
+            }
+
+            public void setTimeToIdle(Duration timeToIdle) {
+                this.timeToIdle = timeToIdle;
+            }
+        }
+    }
+
+    public static class UserPurge {
+
+        /**
+         * Maximum number of rows deleted by one statement of the purge of the old persistent tokens and of the not
+         * activated users.
+         */
+        private Integer batchSize = 1000;
+
+        /**
+         * Maximum number of rows the purges delete per second, averaged over the batches; {@code 0} for no limit.
+         */
+        private Integer maxRowsPerSecond = 0;
+
+        public Integer getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(Integer batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Integer getMaxRowsPerSecond() {
+            return maxRowsPerSecond;
+        }
+
+        public void setMaxRowsPerSecond(Integer maxRowsPerSecond) {
+            this.maxRowsPerSecond = maxRowsPerSecond;
+        }
+    }
+
+    public static class MailOutbox {
+
+        /**
+         * Delay in milliseconds between two deliveries of the emails due.
+         */
+        private Long dispatchDelay = 5000L;
+
+        /**
+         * Maximum number of emails sent over one SMTP connection.
+         */
+        private Integer batchSize = 50;
+
+        /**
+         * Number of attempts after which an email is given up and left in the outbox.
+         */
+        private Integer maxAttempts = 8;
+
+        /**
+         * Delay before the second attempt, doubled after every further failure.
+         */
+        private Duration backoff = Duration.ofMinutes(1);
+
+        /**
+         * Maximum delay between two attempts.
+         */
+        private Duration maxBackoff = Duration.ofHours(1);
+
+        /**
+         * How long a claimed email is reserved for its delivery, after which it is retried if it was not sent.
+         */
+        private Duration lease = Duration.ofMinutes(10);
+
+        public Long getDispatchDelay() {
+            return dispatchDelay;
+        }
+
+        public void setDispatchDelay(Long dispatchDelay) {
+            this.dispatchDelay = dispatchDelay;
+        }
+
+        public Integer getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(Integer batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Integer getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(Integer maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getBackoff() {
+            return backoff;
+        }
+
+        public void setBackoff(Duration backoff) {
+            this.backoff = backoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public Duration getLease() {
+            return lease;
+        }
+
+        public void setLease(Duration lease) {
+            this.lease = lease;
+        }
+    }
+
     // jhipster-needle-application-properties-property-class
 }
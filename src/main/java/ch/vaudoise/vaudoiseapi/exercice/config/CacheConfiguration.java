@@ -1,15 +1,31 @@
 package ch.vaudoise.vaudoiseapi.exercice.config;
 
+import ch.vaudoise.vaudoiseapi.exercice.management.EhcacheStatistics;
+import java.io.File;
+import java.io.Serializable;
 import java.time.Duration;
+import java.util.Set;
+import javax.cache.Caching;
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.core.spi.service.StatisticsService;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.impl.config.persistence.CacheManagerPersistenceConfiguration;
 import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.boot.info.GitProperties;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.jcache.JCacheCache;
+import org.springframework.cache.jcache.JCacheCacheManager;
 import org.springframework.context.annotation.*;
+import org.springframework.util.unit.DataSize;
 import tech.jhipster.config.JHipsterProperties;
 import tech.jhipster.config.cache.PrefixedKeyGenerator;
 
@@ -17,22 +33,69 @@ import tech.jhipster.config.cache.PrefixedKeyGenerator;
 @EnableCaching
 public class CacheConfiguration {
 
+    /**
+     * Regions looked up with keys coming straight from the requests, whose synchronized loads do not store the misses.
+     */
+    private static final Set<String> PRESENT_ONLY_CACHES = Set.of(
+        ch.vaudoise.vaudoiseapi.exercice.repository.UserRepository.USERS_BY_LOGIN_CACHE,
+        ch.vaudoise.vaudoiseapi.exercice.repository.UserRepository.USERS_BY_EMAIL_CACHE
+    );
+
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
-    private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
-
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
-
-        jcacheConfiguration = Eh107Configuration.fromEhcacheCacheConfiguration(
-            CacheConfigurationBuilder.newCacheConfigurationBuilder(
-                Object.class,
-                Object.class,
-                ResourcePoolsBuilder.heap(ehcache.getMaxEntries())
-            )
-                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
-                .build()
-        );
+    private final JHipsterProperties.Cache.Ehcache ehcache;
+    private final ApplicationProperties.Cache cache;
+
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.ehcache = jHipsterProperties.getCache().getEhcache();
+        this.cache = applicationProperties.getCache();
+        validate(cache, Runtime.getRuntime().maxMemory());
+    }
+
+    /**
+     * Creates the JCache manager instead of Spring Boot, so that it knows the directory of the disk tiers.
+     */
+    @Bean
+    public javax.cache.CacheManager jCacheCacheManager(ObjectProvider<JCacheManagerCustomizer> cacheManagerCustomizers) {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        ConfigurationBuilder configuration = ConfigurationBuilder.newConfigurationBuilder();
+        if (cache.getDiskPath() != null) {
+            configuration = configuration.withService(new CacheManagerPersistenceConfiguration(new File(cache.getDiskPath())));
+        }
+        javax.cache.CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), configuration.build());
+        cacheManagerCustomizers.orderedStream().forEach(customizer -> customizer.customize(cacheManager));
+        return cacheManager;
+    }
+
+    /**
+     * Creates the Spring cache manager instead of Spring Boot, so that the {@link #PRESENT_ONLY_CACHES} do not cache
+     * the misses of their synchronized loads.
+     */
+    @Bean
+    public org.springframework.cache.CacheManager cacheManager(javax.cache.CacheManager jCacheCacheManager) {
+        return new JCacheCacheManager(jCacheCacheManager) {
+            @Override
+            protected org.springframework.cache.Cache decorateCache(org.springframework.cache.Cache cache) {
+                if (PRESENT_ONLY_CACHES.contains(cache.getName())) {
+                    cache = new PresentOnlyJCacheCache(((JCacheCache) cache).getNativeCache(), isAllowNullValues());
+                }
+                return super.decorateCache(cache);
+            }
+        };
+    }
+
+    /**
+     * Statistics of the regions, which unlike the JCache statistics include the expirations and the occupancy of each
+     * tier.
+     */
+    @Bean
+    public StatisticsService cacheStatisticsService(javax.cache.CacheManager cacheManager) {
+        return EhcacheStatistics.attach(cacheManager);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
     }
 
     @Bean
@@ -40,6 +103,8 @@ public class CacheConfiguration {
         return cm -> {
             createCache(cm, ch.vaudoise.vaudoiseapi.exercice.repository.UserRepository.USERS_BY_LOGIN_CACHE);
             createCache(cm, ch.vaudoise.vaudoiseapi.exercice.repository.UserRepository.USERS_BY_EMAIL_CACHE);
+            createCache(cm, ch.vaudoise.vaudoiseapi.exercice.security.PersistentTokenRememberMeServices.UPGRADED_TOKEN_CACHE);
+            createCache(cm, ch.vaudoise.vaudoiseapi.exercice.security.DomainUserDetailsService.USER_DETAILS_CACHE);
             createCache(cm, ch.vaudoise.vaudoiseapi.exercice.domain.Authority.class.getName());
             createCache(cm, ch.vaudoise.vaudoiseapi.exercice.domain.ClientInfo.class.getName());
             createCache(cm, ch.vaudoise.vaudoiseapi.exercice.domain.Person.class.getName());
@@ -54,7 +119,95 @@ public class CacheConfiguration {
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, Eh107Configuration.fromEhcacheCacheConfiguration(ehcacheConfiguration(cacheName)));
+        }
+    }
+
+    /**
+     * Builds the configuration of a region from its {@code application.cache.regions} entry, or from the
+     * {@code jhipster.cache.ehcache} defaults when it has none.
+     * <p>
+     * The off-heap and disk tiers store serialized copies of the entries, so a region with one of them only accepts
+     * serializable keys and values. The disk tier is not persistent: it starts empty, so that no entry outlives a
+     * change made to the database while the application was down.
+     *
+     * @param cacheName the name of the region.
+     * @return the configuration of the region.
+     */
+    org.ehcache.config.CacheConfiguration<?, ?> ehcacheConfiguration(String cacheName) {
+        ApplicationProperties.Cache.Region region = cache.getRegions().get(regionKey(cacheName));
+        if (region == null) {
+            region = new ApplicationProperties.Cache.Region();
+        }
+
+        ResourcePoolsBuilder resourcePools = region.getHeapSize() != null
+            ? ResourcePoolsBuilder.newResourcePoolsBuilder().heap(region.getHeapSize().toBytes(), MemoryUnit.B)
+            : ResourcePoolsBuilder.heap(region.getHeapEntries() != null ? region.getHeapEntries() : ehcache.getMaxEntries());
+        if (region.getOffHeapSize() != null) {
+            resourcePools = resourcePools.offheap(region.getOffHeapSize().toBytes(), MemoryUnit.B);
+        }
+        if (region.getDiskSize() != null) {
+            resourcePools = resourcePools.disk(region.getDiskSize().toBytes(), MemoryUnit.B, false);
+        }
+
+        ExpiryPolicy<Object, Object> expiry;
+        if (region.getTimeToIdle() != null) {
+            expiry = ExpiryPolicyBuilder.timeToIdleExpiration(region.getTimeToIdle());
+        } else if (region.getTimeToLive() != null) {
+            expiry = ExpiryPolicyBuilder.timeToLiveExpiration(region.getTimeToLive());
+        } else {
+            expiry = ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds()));
+        }
+
+        Class<?> type = region.getOffHeapSize() == null && region.getDiskSize() == null ? Object.class : Serializable.class;
+        return CacheConfigurationBuilder.newCacheConfigurationBuilder(type, type, resourcePools).withExpiry(expiry).build();
+    }
+
+    /**
+     * Key of a region in {@code application.cache.regions}: the simple class name for the entity regions, named after
+     * the fully qualified class name.
+     */
+    static String regionKey(String cacheName) {
+        return cacheName.substring(cacheName.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * Validates the region configurations at startup. The heap tiers sized in bytes must fit together in the share of
+     * the heap granted to the caches; the heap tiers sized in entries cannot be measured up front, so they are not
+     * counted.
+     *
+     * @param cache the cache properties.
+     * @param maxHeap the maximum heap of the JVM, in bytes.
+     * @throws IllegalStateException if a region is misconfigured or the heap tiers do not fit in the heap.
+     */
+    static void validate(ApplicationProperties.Cache cache, long maxHeap) {
+        long heapBytes = 0;
+        for (var entry : cache.getRegions().entrySet()) {
+            ApplicationProperties.Cache.Region region = entry.getValue();
+            if (region.getHeapEntries() != null && region.getHeapSize() != null) {
+                throw new IllegalStateException("Cache region " + entry.getKey() + " sets both heap-entries and heap-size");
+            }
+            if (region.getTimeToLive() != null && region.getTimeToIdle() != null) {
+                throw new IllegalStateException("Cache region " + entry.getKey() + " sets both time-to-live and time-to-idle");
+            }
+            if (region.getDiskSize() != null && cache.getDiskPath() == null) {
+                throw new IllegalStateException(
+                    "Cache region " + entry.getKey() + " has a disk tier but application.cache.disk-path is not set"
+                );
+            }
+            if (region.getHeapSize() != null) {
+                heapBytes += region.getHeapSize().toBytes();
+            }
+        }
+        long maxHeapBytes = (long) (maxHeap * cache.getMaxHeapRatio());
+        if (heapBytes > maxHeapBytes) {
+            throw new IllegalStateException(
+                "Cache heap tiers take " +
+                DataSize.ofBytes(heapBytes).toMegabytes() +
+                "MB, more than the " +
+                DataSize.ofBytes(maxHeapBytes).toMegabytes() +
+                "MB granted by application.cache.max-heap-ratio"
+            );
         }
     }
 
@@ -0,0 +1,57 @@
+package ch.vaudoise.vaudoiseapi.exercice.config;
+
+import java.util.concurrent.Callable;
+import javax.cache.processor.EntryProcessor;
+import javax.cache.processor.EntryProcessorException;
+import javax.cache.processor.MutableEntry;
+import org.springframework.cache.jcache.JCacheCache;
+
+/**
+ * {@link JCacheCache} whose synchronized loads only store the values found.
+ * <p>
+ * The concurrent {@code @Cacheable(sync = true)} misses on a key still share a single load, run under the lock of the
+ * key, but a load finding nothing leaves the key absent, so that lookups of unknown keys cannot fill the region and
+ * evict the entries in use.
+ */
+class PresentOnlyJCacheCache extends JCacheCache {
+
+    private final PresentOnlyValueLoaderEntryProcessor valueLoaderEntryProcessor = new PresentOnlyValueLoaderEntryProcessor();
+
+    PresentOnlyJCacheCache(javax.cache.Cache<Object, Object> jcache, boolean allowNullValues) {
+        super(jcache, allowNullValues);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        try {
+            return (T) getNativeCache().invoke(key, valueLoaderEntryProcessor, valueLoader);
+        } catch (EntryProcessorException ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex.getCause());
+        }
+    }
+
+    private class PresentOnlyValueLoaderEntryProcessor implements EntryProcessor<Object, Object, Object> {
+
+        @Override
+        public Object process(MutableEntry<Object, Object> entry, Object... arguments) {
+            if (entry.exists()) {
+                return fromStoreValue(entry.getValue());
+            }
+            Callable<?> valueLoader = (Callable<?>) arguments[0];
+            Object value;
+            try {
+                value = valueLoader.call();
+            } catch (Exception ex) {
+                throw new EntryProcessorException(
+                    "Value loader '" + valueLoader + "' failed to compute value for key '" + entry.getKey() + "'",
+                    ex
+                );
+            }
+            if (value != null) {
+                entry.setValue(value);
+            }
+            return value;
+        }
+    }
+}
@@ -1,17 +1,22 @@
 package ch.vaudoise.vaudoiseapi.exercice.domain;
 
+import ch.vaudoise.vaudoiseapi.exercice.domain.id.TimeOrderedUuidGenerator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
 import java.time.Instant;
 import java.util.UUID;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UuidGenerator;
 
 /**
  * A ClientInfo.
  */
 @Entity
 @Table(name = "client_info")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class ClientInfo implements Serializable {
 
@@ -19,6 +24,7 @@ public class ClientInfo implements Serializable {
 
     @Id
     @GeneratedValue
+    @UuidGenerator(algorithm = TimeOrderedUuidGenerator.class)
     @Column(name = "id")
     private UUID id;
 
@@ -1,16 +1,21 @@
 package ch.vaudoise.vaudoiseapi.exercice.domain;
 
+import ch.vaudoise.vaudoiseapi.exercice.domain.id.TimeOrderedUuidGenerator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
 import java.util.UUID;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UuidGenerator;
 
 /**
  * A Company.
  */
 @Entity
 @Table(name = "company")
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Company implements Serializable {
 
@@ -18,6 +23,7 @@ public class Company implements Serializable {
 
     @Id
     @GeneratedValue
+    @UuidGenerator(algorithm = TimeOrderedUuidGenerator.class)
     @Column(name = "id")
     private UUID id;
 
@@ -1,5 +1,6 @@
 package ch.vaudoise.vaudoiseapi.exercice.domain;
 
+import ch.vaudoise.vaudoiseapi.exercice.domain.id.TimeOrderedUuidGenerator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
@@ -7,12 +8,16 @@ import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UuidGenerator;
 
 /**
  * A Contract.
  */
 @Entity
 @Table(name = "contract")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Contract implements Serializable {
 
@@ -20,6 +25,7 @@ public class Contract implements Serializable {
 
     @Id
     @GeneratedValue
+    @UuidGenerator(algorithm = TimeOrderedUuidGenerator.class)
     @Column(name = "id")
     private UUID id;
 
@@ -43,6 +49,15 @@ public class Contract implements Serializable {
     @Column(name = "cost_amount", precision = 21, scale = 2, nullable = false)
     private BigDecimal costAmount;
 
+    /**
+     * Whether the contract is currently counted in its owner's {@link ContractCostTotal}. It is set on every write of
+     * an active contract, and cleared once the contract has ended, see {@code contract_cost_total_sync} in
+     * 20261018110000_partitioned_contract.xml.
+     */
+    @NotNull
+    @Column(name = "cost_total_tracked", nullable = false)
+    private Boolean costTotalTracked = false;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties(value = { "clientInfo" }, allowSetters = true)
     private Person person;
@@ -57,6 +72,19 @@ public class Contract implements Serializable {
         this.creationDate = now;
         this.updateDate = now;
         if (this.startDate == null) this.startDate = now;
+        updateCostTotalTracked(now);
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        updateCostTotalTracked(Instant.now());
+    }
+
+    /**
+     * Writes the contract straight to the partition matching its end date, instead of letting the database move it.
+     */
+    private void updateCostTotalTracked(Instant now) {
+        this.costTotalTracked = this.endDate == null || this.endDate.isAfter(now);
     }
 
     // jhipster-needle-entity-add-field - JHipster will add fields here
@@ -139,6 +167,19 @@ public class Contract implements Serializable {
         this.costAmount = costAmount;
     }
 
+    public Boolean getCostTotalTracked() {
+        return this.costTotalTracked;
+    }
+
+    public Contract costTotalTracked(Boolean costTotalTracked) {
+        this.setCostTotalTracked(costTotalTracked);
+        return this;
+    }
+
+    public void setCostTotalTracked(Boolean costTotalTracked) {
+        this.costTotalTracked = costTotalTracked;
+    }
+
     public Person getPerson() {
         return this.person;
     }
@@ -0,0 +1,209 @@
+package ch.vaudoise.vaudoiseapi.exercice.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * A {@link Contract} that ended more than the archive retention period ago, moved out of the live contract table.
+ * <p>
+ * The owner is kept as a plain id: archived contracts are read by owner only and must not hold the owner rows.
+ * Rows are only written by the archival statement, see
+ * {@link ch.vaudoise.vaudoiseapi.exercice.repository.ContractArchiveRepository#archiveEndedBefore}.
+ */
+@Entity
+@Immutable
+@Table(name = "contract_archive")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class ContractArchive implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "id")
+    private UUID id;
+
+    @NotNull
+    @Column(name = "creation_date", nullable = false)
+    private Instant creationDate;
+
+    @NotNull
+    @Column(name = "update_date", nullable = false)
+    private Instant updateDate;
+
+    @NotNull
+    @Column(name = "start_date", nullable = false)
+    private Instant startDate;
+
+    @NotNull
+    @Column(name = "end_date", nullable = false)
+    private Instant endDate;
+
+    @NotNull
+    @Column(name = "cost_amount", precision = 21, scale = 2, nullable = false)
+    private BigDecimal costAmount;
+
+    @Column(name = "person_id")
+    private UUID personId;
+
+    @Column(name = "company_id")
+    private UUID companyId;
+
+    @NotNull
+    @Column(name = "archive_date", nullable = false)
+    private Instant archiveDate;
+
+    public UUID getId() {
+        return this.id;
+    }
+
+    public ContractArchive id(UUID id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public Instant getCreationDate() {
+        return this.creationDate;
+    }
+
+    public ContractArchive creationDate(Instant creationDate) {
+        this.setCreationDate(creationDate);
+        return this;
+    }
+
+    public void setCreationDate(Instant creationDate) {
+        this.creationDate = creationDate;
+    }
+
+    public Instant getUpdateDate() {
+        return this.updateDate;
+    }
+
+    public ContractArchive updateDate(Instant updateDate) {
+        this.setUpdateDate(updateDate);
+        return this;
+    }
+
+    public void setUpdateDate(Instant updateDate) {
+        this.updateDate = updateDate;
+    }
+
+    public Instant getStartDate() {
+        return this.startDate;
+    }
+
+    public ContractArchive startDate(Instant startDate) {
+        this.setStartDate(startDate);
+        return this;
+    }
+
+    public void setStartDate(Instant startDate) {
+        this.startDate = startDate;
+    }
+
+    public Instant getEndDate() {
+        return this.endDate;
+    }
+
+    public ContractArchive endDate(Instant endDate) {
+        this.setEndDate(endDate);
+        return this;
+    }
+
+    public void setEndDate(Instant endDate) {
+        this.endDate = endDate;
+    }
+
+    public BigDecimal getCostAmount() {
+        return this.costAmount;
+    }
+
+    public ContractArchive costAmount(BigDecimal costAmount) {
+        this.setCostAmount(costAmount);
+        return this;
+    }
+
+    public void setCostAmount(BigDecimal costAmount) {
+        this.costAmount = costAmount;
+    }
+
+    public UUID getPersonId() {
+        return this.personId;
+    }
+
+    public ContractArchive personId(UUID personId) {
+        this.setPersonId(personId);
+        return this;
+    }
+
+    public void setPersonId(UUID personId) {
+        this.personId = personId;
+    }
+
+    public UUID getCompanyId() {
+        return this.companyId;
+    }
+
+    public ContractArchive companyId(UUID companyId) {
+        this.setCompanyId(companyId);
+        return this;
+    }
+
+    public void setCompanyId(UUID companyId) {
+        this.companyId = companyId;
+    }
+
+    public Instant getArchiveDate() {
+        return this.archiveDate;
+    }
+
+    public ContractArchive archiveDate(Instant archiveDate) {
+        this.setArchiveDate(archiveDate);
+        return this;
+    }
+
+    public void setArchiveDate(Instant archiveDate) {
+        this.archiveDate = archiveDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ContractArchive)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((ContractArchive) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ContractArchive{" +
+            "id=" + getId() +
+            ", creationDate='" + getCreationDate() + "'" +
+            ", updateDate='" + getUpdateDate() + "'" +
+            ", startDate='" + getStartDate() + "'" +
+            ", endDate='" + getEndDate() + "'" +
+            ", costAmount=" + getCostAmount() +
+            ", personId='" + getPersonId() + "'" +
+            ", companyId='" + getCompanyId() + "'" +
+            ", archiveDate='" + getArchiveDate() + "'" +
+            "}";
+    }
+}
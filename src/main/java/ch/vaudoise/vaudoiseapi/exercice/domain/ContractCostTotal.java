@@ -0,0 +1,138 @@
+package ch.vaudoise.vaudoiseapi.exercice.domain;
+
+import ch.vaudoise.vaudoiseapi.exercice.domain.enumeration.ContractOwnerType;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Running total of the active contracts of a contract owner (a {@link Company} or a {@link Person}).
+ * <p>
+ * The row is keyed by the owner id and is maintained incrementally by the triggers of the contract table, in the same
+ * transaction, whenever a tracked contract of the owner is created, updated, deleted or untracked.
+ */
+@Entity
+@Table(name = "contract_cost_total")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class ContractCostTotal implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "owner_id")
+    private UUID ownerId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "owner_type", nullable = false)
+    private ContractOwnerType ownerType;
+
+    @NotNull
+    @Column(name = "active_cost_amount_total", precision = 21, scale = 2, nullable = false)
+    private BigDecimal activeCostAmountTotal;
+
+    @NotNull
+    @Column(name = "active_contract_count", nullable = false)
+    private Long activeContractCount;
+
+    @NotNull
+    @Column(name = "update_date", nullable = false)
+    private Instant updateDate;
+
+    public UUID getOwnerId() {
+        return this.ownerId;
+    }
+
+    public ContractCostTotal ownerId(UUID ownerId) {
+        this.setOwnerId(ownerId);
+        return this;
+    }
+
+    public void setOwnerId(UUID ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public ContractOwnerType getOwnerType() {
+        return this.ownerType;
+    }
+
+    public ContractCostTotal ownerType(ContractOwnerType ownerType) {
+        this.setOwnerType(ownerType);
+        return this;
+    }
+
+    public void setOwnerType(ContractOwnerType ownerType) {
+        this.ownerType = ownerType;
+    }
+
+    public BigDecimal getActiveCostAmountTotal() {
+        return this.activeCostAmountTotal;
+    }
+
+    public ContractCostTotal activeCostAmountTotal(BigDecimal activeCostAmountTotal) {
+        this.setActiveCostAmountTotal(activeCostAmountTotal);
+        return this;
+    }
+
+    public void setActiveCostAmountTotal(BigDecimal activeCostAmountTotal) {
+        this.activeCostAmountTotal = activeCostAmountTotal;
+    }
+
+    public Long getActiveContractCount() {
+        return this.activeContractCount;
+    }
+
+    public ContractCostTotal activeContractCount(Long activeContractCount) {
+        this.setActiveContractCount(activeContractCount);
+        return this;
+    }
+
+    public void setActiveContractCount(Long activeContractCount) {
+        this.activeContractCount = activeContractCount;
+    }
+
+    public Instant getUpdateDate() {
+        return this.updateDate;
+    }
+
+    public ContractCostTotal updateDate(Instant updateDate) {
+        this.setUpdateDate(updateDate);
+        return this;
+    }
+
+    public void setUpdateDate(Instant updateDate) {
+        this.updateDate = updateDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ContractCostTotal)) {
+            return false;
+        }
+        return getOwnerId() != null && getOwnerId().equals(((ContractCostTotal) o).getOwnerId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ContractCostTotal{" +
+            "ownerId=" + getOwnerId() +
+            ", ownerType='" + getOwnerType() + "'" +
+            ", activeCostAmountTotal=" + getActiveCostAmountTotal() +
+            ", activeContractCount=" + getActiveContractCount() +
+            ", updateDate='" + getUpdateDate() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,9 @@
+package ch.vaudoise.vaudoiseapi.exercice.domain.enumeration;
+
+/**
+ * The ContractOwnerType enumeration.
+ */
+public enum ContractOwnerType {
+    COMPANY,
+    PERSON,
+}
@@ -0,0 +1,4 @@
+/**
+ * Domain enumerations.
+ */
+package ch.vaudoise.vaudoiseapi.exercice.domain.enumeration;
@@ -0,0 +1,65 @@
+package ch.vaudoise.vaudoiseapi.exercice.domain.id;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+/**
+ * Generates version 7 (time-ordered) UUIDs as defined by RFC 9562.
+ * <p>
+ * The 48 most significant bits hold the Unix epoch in milliseconds and the next 12 bits a counter that
+ * is incremented for ids generated within the same millisecond, so that successive ids of this JVM are
+ * strictly increasing. The remaining 62 bits are random. New rows are thus appended to the right edge of
+ * the primary key index instead of landing on random pages, while ids keep the {@code uuid} column type
+ * and can coexist with the existing random version 4 ids.
+ * <p>
+ * Use it with {@code @UuidGenerator(algorithm = TimeOrderedUuidGenerator.class)}.
+ */
+public class TimeOrderedUuidGenerator implements UuidValueGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final int COUNTER_BITS = 12;
+
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+    private static final Object LOCK = new Object();
+
+    private static long lastMillis;
+
+    private static long counter;
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return next();
+    }
+
+    /**
+     * Generates the next time-ordered UUID.
+     *
+     * @return a version 7 UUID, greater than any previously generated by this JVM.
+     */
+    public static UUID next() {
+        long millis;
+        long sequence;
+        synchronized (LOCK) {
+            long now = System.currentTimeMillis();
+            if (now > lastMillis) {
+                lastMillis = now;
+                // Start low in the counter range to leave room for ids of the same millisecond
+                counter = RANDOM.nextInt(1 << (COUNTER_BITS - 1));
+            } else if (++counter > COUNTER_MASK) {
+                // Counter exhausted or clock moved backwards: borrow the next millisecond
+                lastMillis++;
+                counter = 0;
+            }
+            millis = lastMillis;
+            sequence = counter;
+        }
+
+        long mostSigBits = (millis << 16) | 0x7000L | sequence;
+        long leastSigBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
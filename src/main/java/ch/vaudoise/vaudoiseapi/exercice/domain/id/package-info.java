@@ -0,0 +1,4 @@
+/**
+ * Identifier generators of the domain entities.
+ */
+package ch.vaudoise.vaudoiseapi.exercice.domain.id;
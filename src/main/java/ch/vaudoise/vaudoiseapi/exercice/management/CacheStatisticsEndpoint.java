@@ -0,0 +1,82 @@
+package ch.vaudoise.vaudoiseapi.exercice.management;
+
+import java.util.Map;
+import java.util.TreeMap;
+import org.ehcache.core.spi.service.StatisticsService;
+import org.ehcache.core.statistics.CacheStatistics;
+import org.ehcache.core.statistics.TierStatistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint giving a snapshot of the statistics of every cache region, counted since the start of the
+ * application.
+ */
+@Component
+@Endpoint(id = "cachestats")
+public class CacheStatisticsEndpoint {
+
+    private final javax.cache.CacheManager cacheManager;
+
+    private final StatisticsService cacheStatisticsService;
+
+    public CacheStatisticsEndpoint(javax.cache.CacheManager cacheManager, StatisticsService cacheStatisticsService) {
+        this.cacheManager = cacheManager;
+        this.cacheStatisticsService = cacheStatisticsService;
+    }
+
+    @ReadOperation
+    public Map<String, RegionStatistics> regions() {
+        Map<String, RegionStatistics> regions = new TreeMap<>();
+        for (String cacheName : cacheManager.getCacheNames()) {
+            try {
+                regions.put(cacheName, RegionStatistics.of(cacheStatisticsService.getCacheStatistics(cacheName)));
+            } catch (IllegalArgumentException e) {
+                // Region created without statistics
+            }
+        }
+        return regions;
+    }
+
+    /**
+     * @param hitRatio share of the gets that hit the region, {@code null} before the first get.
+     */
+    public record RegionStatistics(
+        long hits,
+        long misses,
+        Double hitRatio,
+        long puts,
+        long removals,
+        long evictions,
+        long expirations,
+        Map<String, TierSnapshot> tiers
+    ) {
+        static RegionStatistics of(CacheStatistics statistics) {
+            long hits = statistics.getCacheHits();
+            long misses = statistics.getCacheMisses();
+            Map<String, TierSnapshot> tiers = new TreeMap<>();
+            statistics.getTierStatistics().forEach((tier, tierStatistics) -> tiers.put(tier, TierSnapshot.of(tierStatistics)));
+            return new RegionStatistics(
+                hits,
+                misses,
+                hits + misses > 0 ? (double) hits / (hits + misses) : null,
+                statistics.getCachePuts(),
+                statistics.getCacheRemovals(),
+                statistics.getCacheEvictions(),
+                statistics.getCacheExpirations(),
+                tiers
+            );
+        }
+    }
+
+    /**
+     * @param occupiedBytes space occupied by the entries of the tier, {@code null} when the tier is sized in entries.
+     */
+    public record TierSnapshot(long mappings, Long occupiedBytes) {
+        static TierSnapshot of(TierStatistics statistics) {
+            long occupiedBytes = statistics.getOccupiedByteSize();
+            return new TierSnapshot(statistics.getMappings(), occupiedBytes >= 0 ? occupiedBytes : null);
+        }
+    }
+}
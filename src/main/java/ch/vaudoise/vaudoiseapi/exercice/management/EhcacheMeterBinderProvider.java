@@ -0,0 +1,29 @@
+package ch.vaudoise.vaudoiseapi.exercice.management;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.ehcache.core.spi.service.StatisticsService;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.cache.jcache.JCacheCache;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Binds the Spring caches backed by Ehcache to {@link EhcacheMetrics}, ahead of the JCache binder of Spring Boot.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class EhcacheMeterBinderProvider implements CacheMeterBinderProvider<JCacheCache> {
+
+    private final StatisticsService cacheStatisticsService;
+
+    public EhcacheMeterBinderProvider(StatisticsService cacheStatisticsService) {
+        this.cacheStatisticsService = cacheStatisticsService;
+    }
+
+    @Override
+    public MeterBinder getMeterBinder(JCacheCache cache, Iterable<Tag> tags) {
+        return new EhcacheMetrics(cache.getNativeCache(), cacheStatisticsService, tags);
+    }
+}
@@ -0,0 +1,115 @@
+package ch.vaudoise.vaudoiseapi.exercice.management;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import org.ehcache.core.spi.service.StatisticsService;
+import org.ehcache.core.statistics.CacheStatistics;
+import org.ehcache.core.statistics.TierStatistics;
+
+/**
+ * Meters of an Ehcache region, read from the Ehcache statistics rather than from the JCache statistics MBeans, which
+ * know neither the expirations nor the tiers.
+ * <p>
+ * Besides the standard cache meters, the region publishes {@code cache.removals}, {@code cache.expirations}, and per
+ * tier {@code cache.tier.mappings} and, when the tier is sized in bytes, {@code cache.tier.occupied}.
+ */
+public class EhcacheMetrics extends CacheMeterBinder<javax.cache.Cache<?, ?>> {
+
+    private final String cacheName;
+
+    private final StatisticsService statisticsService;
+
+    public EhcacheMetrics(javax.cache.Cache<?, ?> cache, StatisticsService statisticsService, Iterable<Tag> tags) {
+        super(cache, cache.getName(), tags);
+        this.cacheName = cache.getName();
+        this.statisticsService = statisticsService;
+    }
+
+    /**
+     * The number of entries held by the authoritative tier, the lowest one, which holds all of them.
+     */
+    @Override
+    protected Long size() {
+        return tiers().values().stream().mapToLong(TierStatistics::getMappings).max().orElse(0L);
+    }
+
+    @Override
+    protected long hitCount() {
+        return statistic(CacheStatistics::getCacheHits);
+    }
+
+    @Override
+    protected Long missCount() {
+        return statistic(CacheStatistics::getCacheMisses);
+    }
+
+    @Override
+    protected Long evictionCount() {
+        return statistic(CacheStatistics::getCacheEvictions);
+    }
+
+    @Override
+    protected long putCount() {
+        return statistic(CacheStatistics::getCachePuts);
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        FunctionCounter.builder("cache.removals", this, metrics -> metrics.statistic(CacheStatistics::getCacheRemovals))
+            .tags(getTagsWithCacheName())
+            .description("The number of entries removed from the cache")
+            .register(registry);
+        FunctionCounter.builder("cache.expirations", this, metrics -> metrics.statistic(CacheStatistics::getCacheExpirations))
+            .tags(getTagsWithCacheName())
+            .description("The number of entries expired from the cache")
+            .register(registry);
+
+        tiers().forEach((tier, statistics) -> {
+            Gauge.builder("cache.tier.mappings", this, metrics -> metrics.tierStatistic(tier, TierStatistics::getMappings))
+                .tags(getTagsWithCacheName())
+                .tag("tier", tier)
+                .description("The number of entries held by the tier")
+                .register(registry);
+            if (statistics.getOccupiedByteSize() >= 0) {
+                Gauge.builder("cache.tier.occupied", this, metrics -> metrics.tierStatistic(tier, TierStatistics::getOccupiedByteSize))
+                    .tags(getTagsWithCacheName())
+                    .tag("tier", tier)
+                    .description("The memory or disk space occupied by the entries of the tier")
+                    .baseUnit(BaseUnits.BYTES)
+                    .register(registry);
+            }
+        });
+    }
+
+    private long statistic(ToLongFunction<CacheStatistics> statistic) {
+        CacheStatistics statistics = statistics();
+        return statistics != null ? statistic.applyAsLong(statistics) : 0L;
+    }
+
+    private double tierStatistic(String tier, ToLongFunction<TierStatistics> statistic) {
+        TierStatistics statistics = tiers().get(tier);
+        return statistics != null ? statistic.applyAsLong(statistics) : Double.NaN;
+    }
+
+    private Map<String, TierStatistics> tiers() {
+        CacheStatistics statistics = statistics();
+        return statistics != null ? statistics.getTierStatistics() : Map.of();
+    }
+
+    /**
+     * The statistics of the region, or {@code null} when the region was not registered with the statistics service.
+     */
+    private CacheStatistics statistics() {
+        try {
+            return statisticsService.getCacheStatistics(cacheName);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
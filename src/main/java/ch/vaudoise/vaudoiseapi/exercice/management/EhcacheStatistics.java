@@ -0,0 +1,82 @@
+package ch.vaudoise.vaudoiseapi.exercice.management;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ServiceLoader;
+import org.ehcache.core.events.CacheManagerListener;
+import org.ehcache.core.spi.service.CacheManagerProviderService;
+import org.ehcache.core.spi.service.ServiceFactory;
+import org.ehcache.core.spi.service.StatisticsService;
+import org.ehcache.core.spi.store.InternalCacheManager;
+import org.ehcache.spi.service.Service;
+import org.ehcache.spi.service.ServiceProvider;
+
+/**
+ * Statistics of the regions of a JCache manager backed by Ehcache.
+ * <p>
+ * The statistics service Ehcache keeps for its JCache statistics is internal to the cache manager, so a second one is
+ * attached to it. It is created by the statistics {@link ServiceFactory} Ehcache registers, the way Ehcache creates
+ * its own, so that only its service provider interfaces are used. It follows the regions created afterwards and
+ * detaches itself when the cache manager closes.
+ */
+public final class EhcacheStatistics {
+
+    private EhcacheStatistics() {}
+
+    /**
+     * Attaches a statistics service to a cache manager.
+     *
+     * @param cacheManager the JCache manager, backed by Ehcache.
+     * @return the statistics of the current and future regions of the cache manager.
+     */
+    public static StatisticsService attach(javax.cache.CacheManager cacheManager) {
+        InternalCacheManager ehcacheManager = cacheManager.unwrap(InternalCacheManager.class);
+        CacheManagerProviderService cacheManagerProvider = new CacheManagerProviderService() {
+            @Override
+            public InternalCacheManager getCacheManager() {
+                return ehcacheManager;
+            }
+
+            @Override
+            public void start(ServiceProvider<Service> serviceProvider) {}
+
+            @Override
+            public void stop() {}
+        };
+
+        StatisticsService statisticsService = createStatisticsService();
+        statisticsService.start(
+            new ServiceProvider<>() {
+                @Override
+                public <U extends Service> U getService(Class<U> serviceType) {
+                    return serviceType.cast(cacheManagerProvider);
+                }
+
+                @Override
+                public <U extends Service> Collection<U> getServicesOfType(Class<U> serviceType) {
+                    return List.of(getService(serviceType));
+                }
+            }
+        );
+        // The regions created before the service started are not announced to it
+        if (statisticsService instanceof CacheManagerListener listener) {
+            for (String cacheName : cacheManager.getCacheNames()) {
+                listener.cacheAdded(cacheName, cacheManager.getCache(cacheName).unwrap(org.ehcache.Cache.class));
+            }
+        }
+        return statisticsService;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static StatisticsService createStatisticsService() {
+        return ServiceLoader.load(ServiceFactory.class, ServiceFactory.class.getClassLoader())
+            .stream()
+            .map(ServiceLoader.Provider::get)
+            .filter(factory -> StatisticsService.class.isAssignableFrom(factory.getServiceType()))
+            .map(factory -> (ServiceFactory<StatisticsService>) factory)
+            .max(Comparator.comparingInt(ServiceFactory::rank))
+            .map(factory -> factory.create(null))
+            .orElseThrow(() -> new IllegalStateException("No Ehcache statistics service factory is registered"));
+    }
+}
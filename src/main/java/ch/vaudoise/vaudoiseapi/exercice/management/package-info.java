@@ -0,0 +1,4 @@
+/**
+ * Application management.
+ */
+package ch.vaudoise.vaudoiseapi.exercice.management;
@@ -2,9 +2,15 @@ package ch.vaudoise.vaudoiseapi.exercice.repository;
 
 import ch.vaudoise.vaudoiseapi.exercice.domain.ClientInfo;
 import ch.vaudoise.vaudoiseapi.exercice.domain.Contract;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -12,8 +18,78 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface ClientInfoRepository extends JpaRepository<ClientInfo, UUID> {
+public interface ClientInfoRepository
+    extends JpaRepository<ClientInfo, UUID>, ClientInfoRepositoryWithStreaming, RepositoryWithPartialUpdate<ClientInfo> {
+    /**
+     * Anti-join restricting {@code ci} to the client infos no person refers to, served by the unique index on
+     * {@code person.client_info_id}.
+     */
+    String PERSON_IS_NULL = "NOT EXISTS (SELECT 1 FROM Person p WHERE p.clientInfo = ci)";
+
+    /**
+     * Anti-join restricting {@code ci} to the client infos no company refers to, served by the unique index on
+     * {@code company.client_info_id}.
+     */
+    String COMPANY_IS_NULL = "NOT EXISTS (SELECT 1 FROM Company c WHERE c.clientInfo = ci)";
+
     List<ClientInfo> findByCompanyId(UUID companyId);
 
     List<ClientInfo> findByPersonId(UUID personId);
+
+    /**
+     * Loads a client info with a query, so that it is read from its row and not from the second-level cache, as a version
+     * read in the same transaction must describe it.
+     */
+    Optional<ClientInfo> findOneById(UUID id);
+
+    /**
+     * Marks the client info of a company inactive without loading the company.
+     *
+     * @return the number of client infos updated.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(
+        "UPDATE ClientInfo ci SET ci.active = false, ci.updateDate = :now " +
+        "WHERE ci.active = true AND ci.id IN (SELECT c.clientInfo.id FROM Company c WHERE c.id = :companyId)"
+    )
+    int deactivateByCompanyId(@Param("companyId") UUID companyId, @Param("now") Instant now);
+
+    /**
+     * Marks the client info of a person inactive without loading the person.
+     *
+     * @return the number of client infos updated.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(
+        "UPDATE ClientInfo ci SET ci.active = false, ci.updateDate = :now " +
+        "WHERE ci.active = true AND ci.id IN (SELECT p.clientInfo.id FROM Person p WHERE p.id = :personId)"
+    )
+    int deactivateByPersonId(@Param("personId") UUID personId, @Param("now") Instant now);
+
+    @Query(
+        value = "SELECT " + ClientInfoView.SELECT + " FROM ClientInfo ci WHERE " + PERSON_IS_NULL,
+        countQuery = "SELECT COUNT(ci) FROM ClientInfo ci WHERE " + PERSON_IS_NULL
+    )
+    Page<ClientInfoView> findAllWherePersonIsNull(Pageable pageable);
+
+    @Query(
+        value = "SELECT " + ClientInfoView.SELECT + " FROM ClientInfo ci WHERE " + COMPANY_IS_NULL,
+        countQuery = "SELECT COUNT(ci) FROM ClientInfo ci WHERE " + COMPANY_IS_NULL
+    )
+    Page<ClientInfoView> findAllWhereCompanyIsNull(Pageable pageable);
+
+    @Query(value = "SELECT " + ClientInfoView.SELECT + " FROM ClientInfo ci", countQuery = "SELECT COUNT(ci) FROM ClientInfo ci")
+    Page<ClientInfoView> findAllViews(Pageable pageable);
+
+    /**
+     * Page of client infos without the count query, see {@link Slice}.
+     */
+    @Query("SELECT " + ClientInfoView.SELECT + " FROM ClientInfo ci")
+    Slice<ClientInfoView> findViewSlice(Pageable pageable);
+
+    @Query("SELECT " + ClientInfoView.SELECT + " FROM ClientInfo ci WHERE " + PERSON_IS_NULL)
+    Slice<ClientInfoView> findSliceWherePersonIsNull(Pageable pageable);
+
+    @Query("SELECT " + ClientInfoView.SELECT + " FROM ClientInfo ci WHERE " + COMPANY_IS_NULL)
+    Slice<ClientInfoView> findSliceWhereCompanyIsNull(Pageable pageable);
 }
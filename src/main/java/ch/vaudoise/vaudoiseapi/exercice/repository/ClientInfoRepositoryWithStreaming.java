@@ -0,0 +1,28 @@
+package ch.vaudoise.vaudoiseapi.exercice.repository;
+
+import java.util.stream.Stream;
+
+/**
+ * Streaming access to the ClientInfo entity, for exports that must not hold the whole result in memory.
+ * <p>
+ * Rows are fetched from the database {@code fetchSize} at a time as {@link ClientInfoView} projections, so no
+ * entity is managed, and neither the inverse person and company associations nor the persistence context are
+ * loaded or grow with the number of rows. The streams must be consumed and closed within the caller's transaction.
+ */
+public interface ClientInfoRepositoryWithStreaming {
+    /**
+     * Streams the client infos that no person refers to.
+     *
+     * @param fetchSize the JDBC fetch size.
+     * @return the stream of client infos.
+     */
+    Stream<ClientInfoView> streamAllWherePersonIsNull(int fetchSize);
+
+    /**
+     * Streams the client infos that no company refers to.
+     *
+     * @param fetchSize the JDBC fetch size.
+     * @return the stream of client infos.
+     */
+    Stream<ClientInfoView> streamAllWhereCompanyIsNull(int fetchSize);
+}
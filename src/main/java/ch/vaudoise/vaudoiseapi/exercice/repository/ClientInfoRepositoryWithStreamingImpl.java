@@ -0,0 +1,29 @@
+package ch.vaudoise.vaudoiseapi.exercice.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+
+/**
+ * Utility repository to stream client infos without managing them.
+ */
+public class ClientInfoRepositoryWithStreamingImpl implements ClientInfoRepositoryWithStreaming {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<ClientInfoView> streamAllWherePersonIsNull(int fetchSize) {
+        return stream("SELECT " + ClientInfoView.SELECT + " FROM ClientInfo ci WHERE " + ClientInfoRepository.PERSON_IS_NULL, fetchSize);
+    }
+
+    @Override
+    public Stream<ClientInfoView> streamAllWhereCompanyIsNull(int fetchSize) {
+        return stream("SELECT " + ClientInfoView.SELECT + " FROM ClientInfo ci WHERE " + ClientInfoRepository.COMPANY_IS_NULL, fetchSize);
+    }
+
+    private Stream<ClientInfoView> stream(String jpql, int fetchSize) {
+        return entityManager.createQuery(jpql, ClientInfoView.class).setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize).getResultStream();
+    }
+}
@@ -0,0 +1,17 @@
+package ch.vaudoise.vaudoiseapi.exercice.repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Read-only projection of a {@link ch.vaudoise.vaudoiseapi.exercice.domain.ClientInfo}, selected column by column
+ * so that listings do not hydrate managed entities.
+ */
+public record ClientInfoView(UUID id, Instant creationDate, Instant updateDate, String name, String email, String phone, Boolean active) {
+    /**
+     * Constructor expression of the projection of the client info aliased {@code ci}.
+     */
+    static final String SELECT =
+        "new ch.vaudoise.vaudoiseapi.exercice.repository.ClientInfoView(" +
+        "ci.id, ci.creationDate, ci.updateDate, ci.name, ci.email, ci.phone, ci.active)";
+}
@@ -1,7 +1,11 @@
 package ch.vaudoise.vaudoiseapi.exercice.repository;
 
 import ch.vaudoise.vaudoiseapi.exercice.domain.Company;
+import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -10,4 +14,22 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface CompanyRepository extends JpaRepository<Company, UUID> {}
+public interface CompanyRepository extends JpaRepository<Company, UUID> {
+    @Query(
+        value = "SELECT " + CompanyView.SELECT + " FROM Company c LEFT JOIN c.clientInfo ci",
+        countQuery = "SELECT COUNT(c) FROM Company c"
+    )
+    Page<CompanyView> findAllViews(Pageable pageable);
+
+    /**
+     * Page of companies without the count query, see {@link Slice}.
+     */
+    @Query("SELECT " + CompanyView.SELECT + " FROM Company c LEFT JOIN c.clientInfo ci")
+    Slice<CompanyView> findViewSlice(Pageable pageable);
+
+    /**
+     * Loads a company with its client info, in one statement.
+     */
+    @EntityGraph(attributePaths = "clientInfo")
+    Optional<Company> findOneWithClientInfoById(UUID id);
+}
@@ -0,0 +1,48 @@
+package ch.vaudoise.vaudoiseapi.exercice.repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Read-only projection of a {@link ch.vaudoise.vaudoiseapi.exercice.domain.Company} and its client info, selected
+ * column by column in one query so that listings neither hydrate managed entities nor load the client infos one by one.
+ */
+public record CompanyView(UUID id, String companyIdentifier, ClientInfoView clientInfo) {
+    /**
+     * Constructor expression of the projection of the company aliased {@code c}, joined to its client info aliased {@code ci}.
+     */
+    static final String SELECT =
+        "new ch.vaudoise.vaudoiseapi.exercice.repository.CompanyView(" +
+        "c.id, c.companyIdentifier, ci.id, ci.creationDate, ci.updateDate, ci.name, ci.email, ci.phone, ci.active)";
+
+    /**
+     * Flattened constructor, called by the {@link #SELECT} constructor expression.
+     */
+    public CompanyView(
+        UUID id,
+        String companyIdentifier,
+        UUID clientInfoId,
+        Instant clientInfoCreationDate,
+        Instant clientInfoUpdateDate,
+        String clientInfoName,
+        String clientInfoEmail,
+        String clientInfoPhone,
+        Boolean clientInfoActive
+    ) {
+        this(
+            id,
+            companyIdentifier,
+            clientInfoId == null
+                ? null
+                : new ClientInfoView(
+                    clientInfoId,
+                    clientInfoCreationDate,
+                    clientInfoUpdateDate,
+                    clientInfoName,
+                    clientInfoEmail,
+                    clientInfoPhone,
+                    clientInfoActive
+                )
+        );
+    }
+}
@@ -0,0 +1,58 @@
+package ch.vaudoise.vaudoiseapi.exercice.repository;
+
+import ch.vaudoise.vaudoiseapi.exercice.domain.ContractArchive;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.UUID;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Spring Data JPA repository for the ContractArchive entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface ContractArchiveRepository extends JpaRepository<ContractArchive, UUID> {
+    Page<ContractArchive> findByCompanyId(UUID companyId, Pageable pageable);
+
+    Page<ContractArchive> findByPersonId(UUID personId, Pageable pageable);
+
+    /**
+     * Moves a bounded batch of untracked contracts that ended before the given instant from the contract table
+     * to the archive, in one statement. Rows locked by concurrent writers are skipped and picked up by a later batch.
+     * <p>
+     * Only untracked contracts are archived, so that the running totals never count an archived contract.
+     * The candidates are therefore all in the {@code contract_ended} partition.
+     *
+     * @param endedBefore the instant before which contracts must have ended.
+     * @param batchSize   the maximum number of contracts to archive.
+     * @param now         the archive date to record.
+     * @return the number of contracts archived, {@code 0} once there is nothing left to archive.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "contract"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "contract_archive"),
+        }
+    )
+    @Query(
+        value = "WITH archived AS (" +
+        "  DELETE FROM contract WHERE NOT cost_total_tracked AND id IN (" +
+        "    SELECT id FROM contract WHERE NOT cost_total_tracked AND end_date < :endedBefore " +
+        "    LIMIT :batchSize FOR UPDATE SKIP LOCKED" +
+        "  ) RETURNING id, creation_date, update_date, start_date, end_date, cost_amount, person_id, company_id" +
+        ") " +
+        "INSERT INTO contract_archive " +
+        "(id, creation_date, update_date, start_date, end_date, cost_amount, person_id, company_id, archive_date) " +
+        "SELECT id, creation_date, update_date, start_date, end_date, cost_amount, person_id, company_id, :now FROM archived",
+        nativeQuery = true
+    )
+    int archiveEndedBefore(@Param("endedBefore") Instant endedBefore, @Param("batchSize") int batchSize, @Param("now") Instant now);
+}
@@ -0,0 +1,143 @@
+package ch.vaudoise.vaudoiseapi.exercice.repository;
+
+import ch.vaudoise.vaudoiseapi.exercice.domain.ContractCostTotal;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Spring Data JPA repository for the ContractCostTotal entity.
+ * <p>
+ * The running totals are written by triggers on the contract table, see {@code contract_cost_total_sync} in
+ * 20261018110000_partitioned_contract.xml, so they are read as values rather than as managed entities, which would
+ * not see the writes of the triggers. The statements declare the contract table as a query space: Hibernate flushes
+ * the pending contract writes of the session first, and only invalidates the matching second-level cache regions.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface ContractCostTotalRepository extends JpaRepository<ContractCostTotal, UUID> {
+    /**
+     * Reads the running total of an owner.
+     *
+     * @param ownerId the id of the company or person.
+     * @return the total, empty if no contract of the owner was ever counted.
+     */
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "contract"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "contract_cost_total"),
+        }
+    )
+    @Query(
+        value = "SELECT owner_id AS \"ownerId\", active_cost_amount_total AS \"costAmountTotal\", " +
+        "active_contract_count AS \"contractCount\" FROM contract_cost_total WHERE owner_id = :ownerId",
+        nativeQuery = true
+    )
+    Optional<OwnerCostTotal> findTotal(@Param("ownerId") UUID ownerId);
+
+    /**
+     * Reads the running totals of several owners of the same type.
+     *
+     * @param ownerType the {@link ch.vaudoise.vaudoiseapi.exercice.domain.enumeration.ContractOwnerType} name.
+     * @param ownerIds  the ids of the companies or persons.
+     * @return the totals, missing for the owners of which no contract was ever counted.
+     */
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "contract"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "contract_cost_total"),
+        }
+    )
+    @Query(
+        value = "SELECT owner_id AS \"ownerId\", active_cost_amount_total AS \"costAmountTotal\", " +
+        "active_contract_count AS \"contractCount\" FROM contract_cost_total WHERE owner_type = :ownerType AND owner_id IN (:ownerIds)",
+        nativeQuery = true
+    )
+    List<OwnerCostTotal> findTotals(@Param("ownerType") String ownerType, @Param("ownerIds") Collection<UUID> ownerIds);
+
+    /**
+     * Untracks a bounded batch of tracked contracts whose end date has passed, which the trigger subtracts from their
+     * owners' totals. Rows locked by concurrent writers are skipped and picked up by a later batch.
+     * <p>
+     * The end date is also compared with the database clock, which the trigger uses to set the flag of the active
+     * contracts again: a contract ended according to {@code now} only is left to a later sweep.
+     *
+     * @param now       the instant from which contracts are considered expired.
+     * @param batchSize the maximum number of contracts to untrack.
+     * @return the number of contracts untracked, {@code 0} once there is nothing left to sweep.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "contract"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "contract_cost_total"),
+        }
+    )
+    @Query(
+        value = "UPDATE contract SET cost_total_tracked = false WHERE cost_total_tracked AND id IN (" +
+        "  SELECT id FROM contract WHERE cost_total_tracked AND end_date <= :now AND end_date <= now() AT TIME ZONE 'UTC' " +
+        "  LIMIT :batchSize FOR UPDATE SKIP LOCKED" +
+        ")",
+        nativeQuery = true
+    )
+    int sweepExpired(@Param("now") Instant now, @Param("batchSize") int batchSize);
+
+    /**
+     * Recomputes the tracking flags of all the owner's contracts, which the trigger applies to the owner's total.
+     *
+     * @param ownerId the id of the company or person.
+     * @param now     the instant against which contracts are considered active.
+     * @return the number of contracts whose flag changed.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "contract"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "contract_cost_total"),
+        }
+    )
+    @Query(
+        value = "UPDATE contract SET cost_total_tracked = (end_date IS NULL OR end_date > :now) " +
+        "WHERE (company_id = :ownerId OR person_id = :ownerId) AND cost_total_tracked <> (end_date IS NULL OR end_date > :now)",
+        nativeQuery = true
+    )
+    int retrack(@Param("ownerId") UUID ownerId, @Param("now") Instant now);
+
+    /**
+     * Overwrites the owner's running total with the sum of its tracked contracts.
+     *
+     * @param ownerId   the id of the company or person.
+     * @param ownerType the {@link ch.vaudoise.vaudoiseapi.exercice.domain.enumeration.ContractOwnerType} name.
+     * @param now       the update date to record.
+     * @return the number of rows written.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "contract"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "contract_cost_total"),
+        }
+    )
+    @Query(
+        value = "INSERT INTO contract_cost_total (owner_id, owner_type, active_cost_amount_total, active_contract_count, update_date) " +
+        "SELECT :ownerId, :ownerType, COALESCE(SUM(cost_amount), 0), COUNT(*), :now FROM contract " +
+        "WHERE cost_total_tracked AND (company_id = :ownerId OR person_id = :ownerId) " +
+        "ON CONFLICT (owner_id) DO UPDATE SET " +
+        "active_cost_amount_total = EXCLUDED.active_cost_amount_total, " +
+        "active_contract_count = EXCLUDED.active_contract_count, " +
+        "update_date = EXCLUDED.update_date",
+        nativeQuery = true
+    )
+    int resync(@Param("ownerId") UUID ownerId, @Param("ownerType") String ownerType, @Param("now") Instant now);
+}
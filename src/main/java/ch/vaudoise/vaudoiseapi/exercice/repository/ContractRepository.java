@@ -2,10 +2,13 @@ package ch.vaudoise.vaudoiseapi.exercice.repository;
 
 import ch.vaudoise.vaudoiseapi.exercice.domain.Contract;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -15,11 +18,63 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface ContractRepository extends JpaRepository<Contract, UUID>, JpaSpecificationExecutor<Contract> {
+public interface ContractRepository
+    extends
+        ContractRepositoryWithStreaming,
+        RepositoryWithPartialUpdate<Contract>,
+        JpaRepository<Contract, UUID>,
+        JpaSpecificationExecutor<Contract> {
+    @Query(value = "SELECT " + ContractView.SELECT + " FROM Contract c", countQuery = "SELECT COUNT(c) FROM Contract c")
+    Page<ContractView> findAllViews(Pageable pageable);
+
+    /**
+     * Page of contracts without the count query, see {@link Slice}.
+     */
+    @Query("SELECT " + ContractView.SELECT + " FROM Contract c")
+    Slice<ContractView> findViewSlice(Pageable pageable);
+
     List<Contract> findByCompanyId(UUID companyId);
 
     List<Contract> findByPersonId(UUID personId);
 
+    /**
+     * Loads a contract with a query, so that it is read from its row and not from the second-level cache, as a version
+     * read in the same transaction must describe it.
+     */
+    Optional<Contract> findOneById(UUID id);
+
+    /**
+     * Ends all the active contracts of a company at {@code now} and untracks them from the company's running total.
+     * Already ended contracts are left untouched, including the ones still tracked, which the expiry sweep untracks.
+     *
+     * @return the number of contracts ended.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(
+        "UPDATE Contract c SET c.endDate = :now, c.costTotalTracked = false " +
+        "WHERE c.company.id = :companyId AND (c.endDate IS NULL OR c.endDate > :now)"
+    )
+    int deactivateByCompanyId(@Param("companyId") UUID companyId, @Param("now") Instant now);
+
+    /**
+     * Ends all the active contracts of a person at {@code now} and untracks them from the person's running total.
+     * Already ended contracts are left untouched, including the ones still tracked, which the expiry sweep untracks.
+     *
+     * @return the number of contracts ended.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(
+        "UPDATE Contract c SET c.endDate = :now, c.costTotalTracked = false " +
+        "WHERE c.person.id = :personId AND (c.endDate IS NULL OR c.endDate > :now)"
+    )
+    int deactivateByPersonId(@Param("personId") UUID personId, @Param("now") Instant now);
+
+    /**
+     * Checks for tracked contracts whose end date has passed, so that the expiry sweep only runs its
+     * bulk statement, and invalidates the cached contracts, when there is something to sweep.
+     */
+    boolean existsByCostTotalTrackedTrueAndEndDateLessThanEqual(Instant now);
+
     @Query(
         "SELECT SUM(c.costAmount) FROM Contract c WHERE c.company.id = :companyId AND (c.endDate IS NULL OR c.endDate > CURRENT_TIMESTAMP)"
     )
@@ -29,4 +84,16 @@ public interface ContractRepository extends JpaRepository<Contract, UUID>, JpaSp
         "SELECT SUM(c.costAmount) FROM Contract c WHERE c.person.id = :personId AND (c.endDate IS NULL OR c.endDate > CURRENT_TIMESTAMP)"
     )
     BigDecimal getActiveCostAmountTotalByPersonId(@Param("personId") UUID personId);
+
+    @Query(
+        "SELECT c.company.id AS ownerId, SUM(c.costAmount) AS costAmountTotal, COUNT(c) AS contractCount FROM Contract c " +
+        "WHERE c.company.id IS NOT NULL AND (c.endDate IS NULL OR c.endDate > :now) GROUP BY c.company.id"
+    )
+    List<OwnerCostTotal> getActiveCostAmountTotalsGroupedByCompany(@Param("now") Instant now);
+
+    @Query(
+        "SELECT c.person.id AS ownerId, SUM(c.costAmount) AS costAmountTotal, COUNT(c) AS contractCount FROM Contract c " +
+        "WHERE c.person.id IS NOT NULL AND (c.endDate IS NULL OR c.endDate > :now) GROUP BY c.person.id"
+    )
+    List<OwnerCostTotal> getActiveCostAmountTotalsGroupedByPerson(@Param("now") Instant now);
 }
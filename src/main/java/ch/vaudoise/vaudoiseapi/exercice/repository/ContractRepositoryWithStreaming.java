@@ -0,0 +1,25 @@
+package ch.vaudoise.vaudoiseapi.exercice.repository;
+
+import ch.vaudoise.vaudoiseapi.exercice.domain.Contract;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Streaming access to the Contract entity, for exports that must not hold the whole result in memory.
+ */
+public interface ContractRepositoryWithStreaming {
+    /**
+     * Streams the contracts matching a specification, mapping each one while it is still managed.
+     * <p>
+     * Rows are fetched from the database {@code fetchSize} at a time and the persistence context is cleared
+     * after each such batch, so memory use does not grow with the number of rows. The stream must be consumed
+     * and closed within the caller's transaction.
+     *
+     * @param spec      the specification to filter on.
+     * @param fetchSize the JDBC fetch size, also the number of entities kept managed at once.
+     * @param mapper    the mapping applied to each contract.
+     * @return the stream of mapped contracts.
+     */
+    <R> Stream<R> streamAll(Specification<Contract> spec, int fetchSize, Function<Contract, R> mapper);
+}
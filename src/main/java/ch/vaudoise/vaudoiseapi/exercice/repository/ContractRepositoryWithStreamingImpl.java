@@ -0,0 +1,50 @@
+package ch.vaudoise.vaudoiseapi.exercice.repository;
+
+import ch.vaudoise.vaudoiseapi.exercice.domain.Contract;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.hibernate.CacheMode;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Utility repository to stream contracts with a bounded persistence context.
+ */
+public class ContractRepositoryWithStreamingImpl implements ContractRepositoryWithStreaming {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public <R> Stream<R> streamAll(Specification<Contract> spec, int fetchSize, Function<Contract, R> mapper) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Contract> query = cb.createQuery(Contract.class);
+        Root<Contract> root = query.from(Contract.class);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        long[] count = { 0 };
+        return entityManager
+            .createQuery(query)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            // A full scan would only churn the second-level cache
+            .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+            .getResultStream()
+            .map(contract -> {
+                R result = mapper.apply(contract);
+                if (++count[0] % fetchSize == 0) {
+                    entityManager.clear();
+                }
+                return result;
+            });
+    }
+}
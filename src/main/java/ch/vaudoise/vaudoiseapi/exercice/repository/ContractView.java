@@ -0,0 +1,27 @@
+package ch.vaudoise.vaudoiseapi.exercice.repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Read-only projection of a {@link ch.vaudoise.vaudoiseapi.exercice.domain.Contract}, selected column by column
+ * so that listings do not hydrate managed entities. The owner ids are read from the foreign key columns.
+ */
+public record ContractView(
+    UUID id,
+    Instant creationDate,
+    Instant updateDate,
+    Instant startDate,
+    Instant endDate,
+    BigDecimal costAmount,
+    UUID personId,
+    UUID companyId
+) {
+    /**
+     * Constructor expression of the projection of the contract aliased {@code c}.
+     */
+    static final String SELECT =
+        "new ch.vaudoise.vaudoiseapi.exercice.repository.ContractView(" +
+        "c.id, c.creationDate, c.updateDate, c.startDate, c.endDate, c.costAmount, c.person.id, c.company.id)";
+}
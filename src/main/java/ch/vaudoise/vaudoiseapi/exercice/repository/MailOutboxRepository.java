@@ -0,0 +1,56 @@
+package ch.vaudoise.vaudoiseapi.exercice.repository;
+
+import ch.vaudoise.vaudoiseapi.exercice.domain.MailOutbox;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Spring Data JPA repository for the {@link MailOutbox} entity.
+ */
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, UUID> {
+    /**
+     * Claims a bounded batch of the emails due, oldest first, in one statement: their attempt is counted and their next
+     * attempt pushed back to the end of the lease, so that another node skips them and they are retried if this node
+     * stops before sending them. Rows locked by a concurrent claim are skipped.
+     *
+     * @param now        the current instant.
+     * @param leaseUntil the end of the lease of the claimed emails.
+     * @param batchSize  the maximum number of emails to claim.
+     * @return the claimed emails, empty once there is nothing due.
+     */
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "mail_outbox"))
+    @Query(
+        value = "UPDATE mail_outbox SET attempts = attempts + 1, next_attempt_date = :leaseUntil WHERE id IN (" +
+        "  SELECT id FROM mail_outbox WHERE next_attempt_date <= :now ORDER BY next_attempt_date " +
+        "  LIMIT :batchSize FOR UPDATE SKIP LOCKED" +
+        ") RETURNING *",
+        nativeQuery = true
+    )
+    List<MailOutbox> claimDue(@Param("now") Instant now, @Param("leaseUntil") Instant leaseUntil, @Param("batchSize") int batchSize);
+
+    /**
+     * Schedules the next attempt of an email that could not be sent.
+     *
+     * @param id              the id of the email.
+     * @param nextAttemptDate the instant of the next attempt, {@code null} to give up on the email.
+     * @param lastError       the reason of the failure.
+     * @return the number of emails updated.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE MailOutbox m SET m.nextAttemptDate = :nextAttemptDate, m.lastError = :lastError WHERE m.id = :id")
+    int reschedule(@Param("id") UUID id, @Param("nextAttemptDate") Instant nextAttemptDate, @Param("lastError") String lastError);
+
+    long countByNextAttemptDateIsNotNull();
+
+    long countByNextAttemptDateIsNull();
+}
@@ -0,0 +1,15 @@
+package ch.vaudoise.vaudoiseapi.exercice.repository;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Projection of the active cost amount total and active contract count of one contract owner.
+ */
+public interface OwnerCostTotal {
+    UUID getOwnerId();
+
+    BigDecimal getCostAmountTotal();
+
+    Long getContractCount();
+}
@@ -0,0 +1,80 @@
+package ch.vaudoise.vaudoiseapi.exercice.repository;
+
+import jakarta.persistence.metamodel.SingularAttribute;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The fields to set on one entity row, see {@link RepositoryWithPartialUpdate#partialUpdate(PartialUpdate)}.
+ *
+ * @param <T> the entity type.
+ */
+public final class PartialUpdate<T> {
+
+    private final Class<T> entityClass;
+
+    private final UUID id;
+
+    private final SingularAttribute<?, T> owner;
+
+    private final Map<SingularAttribute<? super T, ?>, Object> values = new LinkedHashMap<>();
+
+    private PartialUpdate(Class<T> entityClass, UUID id, SingularAttribute<?, T> owner) {
+        this.entityClass = entityClass;
+        this.id = id;
+        this.owner = owner;
+    }
+
+    public static <T> PartialUpdate<T> of(Class<T> entityClass, UUID id) {
+        return new PartialUpdate<>(entityClass, id, null);
+    }
+
+    /**
+     * Targets the row referenced by a to-one association of another entity, such as the client info of a company,
+     * without loading that entity first.
+     *
+     * @param owner the association of the owner entity to the row.
+     * @param ownerId the id of the owner entity.
+     */
+    public static <T> PartialUpdate<T> ofOwner(SingularAttribute<?, T> owner, UUID ownerId) {
+        return new PartialUpdate<>(owner.getJavaType(), ownerId, owner);
+    }
+
+    /**
+     * Sets a basic attribute, unless the value is {@code null}.
+     */
+    public <V> PartialUpdate<T> setIfNotNull(SingularAttribute<? super T, V> attribute, V value) {
+        if (value != null) {
+            values.put(attribute, value);
+        }
+        return this;
+    }
+
+    public Class<T> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * The id of the row, or of the owner entity when the row is targeted through its {@link #getOwner() owner}.
+     */
+    public UUID getId() {
+        return id;
+    }
+
+    /**
+     * The association of the owner entity to the row, or {@code null} when the row is targeted by its own id.
+     */
+    public SingularAttribute<?, T> getOwner() {
+        return owner;
+    }
+
+    public Map<SingularAttribute<? super T, ?>, Object> getValues() {
+        return Collections.unmodifiableMap(values);
+    }
+
+    public boolean isEmpty() {
+        return values.isEmpty();
+    }
+}
@@ -2,9 +2,13 @@ package ch.vaudoise.vaudoiseapi.exercice.repository;
 
 import ch.vaudoise.vaudoiseapi.exercice.domain.PersistentToken;
 import ch.vaudoise.vaudoiseapi.exercice.domain.User;
+import jakarta.persistence.QueryHint;
 import java.time.LocalDate;
 import java.util.List;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Spring Data JPA repository for the {@link PersistentToken} entity.
@@ -13,4 +17,23 @@ public interface PersistentTokenRepository extends JpaRepository<PersistentToken
     List<PersistentToken> findByUser(User user);
 
     List<PersistentToken> findByTokenDateBefore(LocalDate localDate);
+
+    /**
+     * Deletes a bounded batch of the tokens dated before the given date, in one statement. Rows locked by concurrent
+     * writers are skipped and picked up by a later batch.
+     *
+     * @param localDate the date before which tokens are deleted.
+     * @param batchSize the maximum number of tokens to delete.
+     * @return the number of tokens deleted, {@code 0} once there is nothing left to delete.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "jhi_persistent_token"))
+    @Query(
+        value = "DELETE FROM jhi_persistent_token WHERE series IN (" +
+        "  SELECT series FROM jhi_persistent_token WHERE token_date < :localDate LIMIT :batchSize FOR UPDATE SKIP LOCKED" +
+        ")",
+        nativeQuery = true
+    )
+    int deleteByTokenDateBefore(@Param("localDate") LocalDate localDate, @Param("batchSize") int batchSize);
 }
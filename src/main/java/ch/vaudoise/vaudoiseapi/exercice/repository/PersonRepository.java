@@ -1,7 +1,11 @@
 package ch.vaudoise.vaudoiseapi.exercice.repository;
 
 import ch.vaudoise.vaudoiseapi.exercice.domain.Person;
+import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -10,4 +14,19 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface PersonRepository extends JpaRepository<Person, UUID> {}
+public interface PersonRepository extends JpaRepository<Person, UUID> {
+    @Query(value = "SELECT " + PersonView.SELECT + " FROM Person p LEFT JOIN p.clientInfo ci", countQuery = "SELECT COUNT(p) FROM Person p")
+    Page<PersonView> findAllViews(Pageable pageable);
+
+    /**
+     * Page of people without the count query, see {@link Slice}.
+     */
+    @Query("SELECT " + PersonView.SELECT + " FROM Person p LEFT JOIN p.clientInfo ci")
+    Slice<PersonView> findViewSlice(Pageable pageable);
+
+    /**
+     * Loads a person with its client info, in one statement.
+     */
+    @EntityGraph(attributePaths = "clientInfo")
+    Optional<Person> findOneWithClientInfoById(UUID id);
+}
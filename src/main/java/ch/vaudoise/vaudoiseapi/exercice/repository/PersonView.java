@@ -0,0 +1,49 @@
+package ch.vaudoise.vaudoiseapi.exercice.repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Read-only projection of a {@link ch.vaudoise.vaudoiseapi.exercice.domain.Person} and its client info, selected
+ * column by column in one query so that listings neither hydrate managed entities nor load the client infos one by one.
+ */
+public record PersonView(UUID id, LocalDate birthDate, ClientInfoView clientInfo) {
+    /**
+     * Constructor expression of the projection of the person aliased {@code p}, joined to its client info aliased {@code ci}.
+     */
+    static final String SELECT =
+        "new ch.vaudoise.vaudoiseapi.exercice.repository.PersonView(" +
+        "p.id, p.birthDate, ci.id, ci.creationDate, ci.updateDate, ci.name, ci.email, ci.phone, ci.active)";
+
+    /**
+     * Flattened constructor, called by the {@link #SELECT} constructor expression.
+     */
+    public PersonView(
+        UUID id,
+        LocalDate birthDate,
+        UUID clientInfoId,
+        Instant clientInfoCreationDate,
+        Instant clientInfoUpdateDate,
+        String clientInfoName,
+        String clientInfoEmail,
+        String clientInfoPhone,
+        Boolean clientInfoActive
+    ) {
+        this(
+            id,
+            birthDate,
+            clientInfoId == null
+                ? null
+                : new ClientInfoView(
+                    clientInfoId,
+                    clientInfoCreationDate,
+                    clientInfoUpdateDate,
+                    clientInfoName,
+                    clientInfoEmail,
+                    clientInfoPhone,
+                    clientInfoActive
+                )
+        );
+    }
+}
@@ -0,0 +1,24 @@
+package ch.vaudoise.vaudoiseapi.exercice.repository;
+
+import java.util.Optional;
+
+/**
+ * Partial updates of an entity in a single statement, without loading the entity first.
+ *
+ * @param <T> the entity type.
+ */
+public interface RepositoryWithPartialUpdate<T> {
+    /**
+     * Sets the given basic attributes of one row with an {@code UPDATE ... RETURNING} statement and returns the
+     * updated entity, managed by the current persistence context.
+     * <p>
+     * The values are checked against the bean validation constraints of the entity attributes, but entity
+     * callbacks such as {@code @PreUpdate} are not run. The row is evicted from the second-level cache
+     * now and after the transaction completes.
+     *
+     * @param update the id of the row and the attributes to set.
+     * @return the updated entity, or empty if there is no row with this id.
+     * @throws jakarta.validation.ConstraintViolationException if a value violates a constraint.
+     */
+    Optional<T> partialUpdate(PartialUpdate<T> update);
+}
@@ -0,0 +1,152 @@
+package ch.vaudoise.vaudoiseapi.exercice.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.metamodel.SingularAttribute;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.hibernate.CacheMode;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utility repository to update some columns of a row without loading its entity first.
+ * <p>
+ * The statement is native so that Hibernate does not invalidate the whole second-level cache region of the
+ * entity, as it does for JPQL and criteria bulk updates; only the updated row is evicted.
+ */
+public class RepositoryWithPartialUpdateImpl<T> implements RepositoryWithPartialUpdate<T> {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Validator validator;
+
+    public RepositoryWithPartialUpdateImpl(Validator validator) {
+        this.validator = validator;
+    }
+
+    @Override
+    public Optional<T> partialUpdate(PartialUpdate<T> update) {
+        Class<T> entityClass = update.getEntityClass();
+        if (update.isEmpty()) {
+            return find(update);
+        }
+        validate(update);
+
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        AbstractEntityPersister persister = persisterOf(session, entityClass);
+        // The query returns a managed instance as is, so the ones managed before the update are reloaded
+        Set<Object> managedIds = new HashSet<>();
+        session
+            .getPersistenceContextInternal()
+            .getEntitiesByKey()
+            .keySet()
+            .stream()
+            .filter(key -> key.getPersister() == persister)
+            .forEach(key -> managedIds.add(key.getIdentifier()));
+
+        StringBuilder sql = new StringBuilder("UPDATE ").append(persister.getIdentifierTableName()).append(" SET ");
+        int index = 0;
+        for (SingularAttribute<? super T, ?> attribute : update.getValues().keySet()) {
+            sql.append(index == 0 ? "" : ", ").append(columnOf(persister, attribute)).append(" = :p").append(index++);
+        }
+        sql.append(" WHERE ").append(persister.getIdentifierColumnNames()[0]).append(" = ");
+        if (update.getOwner() == null) {
+            sql.append(":id");
+        } else {
+            AbstractEntityPersister ownerPersister = persisterOf(session, update.getOwner().getDeclaringType().getJavaType());
+            sql
+                .append("(SELECT ")
+                .append(columnOf(ownerPersister, update.getOwner()))
+                .append(" FROM ")
+                .append(ownerPersister.getIdentifierTableName())
+                .append(" WHERE ")
+                .append(ownerPersister.getIdentifierColumnNames()[0])
+                .append(" = :id)");
+        }
+        sql.append(" RETURNING *");
+
+        // The statement must not fill the second-level cache with uncommitted state
+        Query query = entityManager
+            .createNativeQuery(sql.toString(), entityClass)
+            .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE);
+        index = 0;
+        for (Object value : update.getValues().values()) {
+            query.setParameter("p" + index++, value);
+        }
+        query.setParameter("id", update.getId());
+
+        @SuppressWarnings("unchecked")
+        List<T> result = query.getResultList();
+        Optional<T> updated = result.stream().findFirst();
+        updated.ifPresent(entity -> {
+            Object id = persister.getIdentifier(entity, session);
+            evict(session, entityClass, id);
+            if (managedIds.contains(id)) {
+                entityManager.refresh(entity);
+            }
+        });
+        return updated;
+    }
+
+    private Optional<T> find(PartialUpdate<T> update) {
+        if (update.getOwner() == null) {
+            return Optional.ofNullable(entityManager.find(update.getEntityClass(), update.getId()));
+        }
+        String owner = entityManager.getMetamodel().entity(update.getOwner().getDeclaringType().getJavaType()).getName();
+        return entityManager
+            .createQuery("SELECT o." + update.getOwner().getName() + " FROM " + owner + " o WHERE o.id = :id", update.getEntityClass())
+            .setParameter("id", update.getId())
+            .getResultStream()
+            .findFirst();
+    }
+
+    private void validate(PartialUpdate<T> update) {
+        Set<ConstraintViolation<T>> violations = new HashSet<>();
+        for (Map.Entry<SingularAttribute<? super T, ?>, Object> entry : update.getValues().entrySet()) {
+            violations.addAll(validator.validateValue(update.getEntityClass(), entry.getKey().getName(), entry.getValue()));
+        }
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+    }
+
+    private static AbstractEntityPersister persisterOf(SessionImplementor session, Class<?> entityClass) {
+        return (AbstractEntityPersister) session.getFactory().getMappingMetamodel().getEntityDescriptor(entityClass);
+    }
+
+    private static String columnOf(AbstractEntityPersister persister, SingularAttribute<?, ?> attribute) {
+        String[] columns = persister.getPropertyColumnNames(attribute.getName());
+        if (columns.length != 1 || !persister.getIdentifierTableName().equals(persister.getPropertyTableName(attribute.getName()))) {
+            throw new IllegalArgumentException("Attribute " + attribute.getName() + " is not a single column of the entity table");
+        }
+        return columns[0];
+    }
+
+    private static void evict(SharedSessionContractImplementor session, Class<?> entityClass, Object id) {
+        org.hibernate.Cache cache = session.getFactory().getCache();
+        cache.evictEntityData(entityClass, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        cache.evictEntityData(entityClass, id);
+                    }
+                }
+            );
+        }
+    }
+}
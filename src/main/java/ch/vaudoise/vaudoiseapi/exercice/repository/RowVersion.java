@@ -0,0 +1,11 @@
+package ch.vaudoise.vaudoiseapi.exercice.repository;
+
+import java.time.Instant;
+
+/**
+ * Version of the rows behind a resource, read without loading the entity.
+ *
+ * @param tag opaque tag that changes whenever one of the rows is written.
+ * @param lastModified date of the last modification of the resource, or {@code null} when no column tracks it reliably.
+ */
+public record RowVersion(String tag, Instant lastModified) {}
@@ -0,0 +1,99 @@
+package ch.vaudoise.vaudoiseapi.exercice.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository reading the version of the rows behind a resource, to answer conditional requests without loading the
+ * entity.
+ * <p>
+ * The tag is built from the Postgres {@code xmin} system column, the id of the transaction that wrote the current
+ * version of a row. Every write produces a new row version, including the bulk and native updates bypassing the
+ * entity lifecycle, so the tag changes with every modification.
+ * <p>
+ * A version describes the entity loaded with it only when both are read from the same snapshot, in a
+ * {@code REPEATABLE READ} transaction, and when the entity is read from its row rather than from the second-level cache.
+ */
+@Repository
+public class RowVersionRepository {
+
+    /**
+     * The {@code updateDate} of a contract only follows its cost amount, so its last modification date is the
+     * {@code last_modified_date} column a trigger sets on every write of the row.
+     */
+    private static final String CONTRACT_VERSION =
+        "SELECT CAST(c.xmin AS text) AS tag, c.last_modified_date AS last_modified FROM contract c WHERE c.id = :id";
+
+    private static final String CLIENT_INFO_VERSION =
+        "SELECT CAST(ci.xmin AS text) AS tag, ci.update_date AS last_modified FROM client_info ci WHERE ci.id = :id";
+
+    /**
+     * The client info is the only part of a person or a company that can be modified, so its {@code updateDate} is the
+     * last modification date of the owner.
+     */
+    private static final String OWNER_VERSION =
+        "SELECT CONCAT(o.xmin, '.', ci.xmin) AS tag, ci.update_date AS last_modified " +
+        "FROM %s o LEFT JOIN client_info ci ON ci.id = o.client_info_id WHERE o.id = :id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Reads the version of a contract.
+     *
+     * @param id the id of the contract.
+     * @return the version, empty when the contract does not exist.
+     */
+    public Optional<RowVersion> findContractVersion(UUID id) {
+        return findVersion(CONTRACT_VERSION, id);
+    }
+
+    /**
+     * Reads the version of a client info.
+     *
+     * @param id the id of the client info.
+     * @return the version, empty when the client info does not exist.
+     */
+    public Optional<RowVersion> findClientInfoVersion(UUID id) {
+        return findVersion(CLIENT_INFO_VERSION, id);
+    }
+
+    /**
+     * Reads the version of a person, including its client info.
+     *
+     * @param id the id of the person.
+     * @return the version, empty when the person does not exist.
+     */
+    public Optional<RowVersion> findPersonVersion(UUID id) {
+        return findVersion(OWNER_VERSION.formatted("person"), id);
+    }
+
+    /**
+     * Reads the version of a company, including its client info.
+     *
+     * @param id the id of the company.
+     * @return the version, empty when the company does not exist.
+     */
+    public Optional<RowVersion> findCompanyVersion(UUID id) {
+        return findVersion(OWNER_VERSION.formatted("company"), id);
+    }
+
+    private Optional<RowVersion> findVersion(String sql, UUID id) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager
+            .createNativeQuery(sql)
+            .unwrap(NativeQuery.class)
+            .addScalar("tag", StandardBasicTypes.STRING)
+            .addScalar("last_modified", StandardBasicTypes.INSTANT)
+            .setParameter("id", id)
+            .getResultList();
+        return rows.stream().findFirst().map(row -> new RowVersion((String) row[0], (Instant) row[1]));
+    }
+}
@@ -0,0 +1,46 @@
+package ch.vaudoise.vaudoiseapi.exercice.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository reading the planner statistics Postgres keeps about the entity tables.
+ */
+@Repository
+public class TableStatisticsRepository {
+
+    /**
+     * Sum of the row estimates of the table, or of its partitions when it is partitioned; a table never analyzed
+     * has a negative estimate and counts as empty.
+     */
+    private static final String ESTIMATED_ROW_COUNT =
+        "SELECT COALESCE(SUM(GREATEST(c.reltuples, 0)), 0)::bigint " +
+        "FROM pg_partition_tree(CAST(:table AS regclass)) t JOIN pg_class c ON c.oid = t.relid WHERE t.isleaf";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Estimates the number of rows of the table of an entity from the statistics of the last {@code ANALYZE}, without
+     * scanning the table. The estimate can be off by the rows written since, and is {@code 0} before the first
+     * {@code ANALYZE}.
+     *
+     * @param entityClass the entity class.
+     * @return the estimated number of rows.
+     */
+    public long estimateRowCount(Class<?> entityClass) {
+        AbstractEntityPersister persister = (AbstractEntityPersister) entityManager
+            .getEntityManagerFactory()
+            .unwrap(SessionFactoryImplementor.class)
+            .getMappingMetamodel()
+            .getEntityDescriptor(entityClass);
+        Number count = (Number) entityManager
+            .createNativeQuery(ESTIMATED_ROW_COUNT)
+            .setParameter("table", persister.getIdentifierTableName())
+            .getSingleResult();
+        return count.longValue();
+    }
+}
@@ -1,14 +1,17 @@
 package ch.vaudoise.vaudoiseapi.exercice.repository;
 
 import ch.vaudoise.vaudoiseapi.exercice.domain.User;
+import jakarta.persistence.QueryHint;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.*;
-import org.springframework.data.jpa.repository.EntityGraph;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Spring Data JPA repository for the {@link User} entity.
@@ -24,13 +27,62 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findOneByEmailIgnoreCase(String email);
     Optional<User> findOneByLogin(String login);
 
+    /**
+     * Loads a user with its authorities, through the {@value #USERS_BY_LOGIN_CACHE} cache. The concurrent misses on a
+     * login share a single load, so an expired or evicted entry costs one query however many requests wait on it. An
+     * unknown login is not cached, so that lookups of made up logins cannot evict the users in use.
+     */
     @EntityGraph(attributePaths = "authorities")
-    @Cacheable(cacheNames = USERS_BY_LOGIN_CACHE, unless = "#result == null")
+    @Cacheable(cacheNames = USERS_BY_LOGIN_CACHE, sync = true)
     Optional<User> findOneWithAuthoritiesByLogin(String login);
 
+    /**
+     * Loads a user with its authorities, through the {@value #USERS_BY_EMAIL_CACHE} cache keyed by the lower case email
+     * the user entries are evicted by, with the same single load per key as {@link #findOneWithAuthoritiesByLogin}.
+     */
     @EntityGraph(attributePaths = "authorities")
-    @Cacheable(cacheNames = USERS_BY_EMAIL_CACHE, unless = "#result == null")
+    @Cacheable(cacheNames = USERS_BY_EMAIL_CACHE, key = "#email.toLowerCase()", sync = true)
     Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
 
     Page<User> findAllByIdNotNullAndActivatedIsTrue(Pageable pageable);
+
+    /**
+     * Deletes a bounded batch of the users not activated and created before the given instant, with their
+     * authorities and persistent tokens, in one statement. Rows locked by concurrent writers, such as an activation
+     * in progress, are skipped and picked up by a later batch.
+     *
+     * @param createdBefore the instant before which the users must have been created.
+     * @param batchSize the maximum number of users to delete.
+     * @return the login and email of the users deleted, empty once there is nothing left to delete.
+     */
+    @Transactional
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "jhi_user"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "jhi_user_authority"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "jhi_persistent_token"),
+        }
+    )
+    @Query(
+        value = "WITH purged AS (" +
+        "  SELECT id FROM jhi_user WHERE NOT activated AND activation_key IS NOT NULL AND created_date < :createdBefore " +
+        "  LIMIT :batchSize FOR UPDATE SKIP LOCKED" +
+        "), authorities AS (" +
+        "  DELETE FROM jhi_user_authority WHERE user_id IN (SELECT id FROM purged)" +
+        "), tokens AS (" +
+        "  DELETE FROM jhi_persistent_token WHERE user_id IN (SELECT id FROM purged)" +
+        ") " +
+        "DELETE FROM jhi_user WHERE id IN (SELECT id FROM purged) RETURNING login, email",
+        nativeQuery = true
+    )
+    List<PurgedUser> deleteNotActivatedCreatedBefore(@Param("createdBefore") Instant createdBefore, @Param("batchSize") int batchSize);
+
+    /**
+     * The keys of the cache entries of a deleted user.
+     */
+    interface PurgedUser {
+        String getLogin();
+
+        String getEmail();
+    }
 }
@@ -3,10 +3,13 @@ package ch.vaudoise.vaudoiseapi.exercice.security;
 import ch.vaudoise.vaudoiseapi.exercice.domain.Authority;
 import ch.vaudoise.vaudoiseapi.exercice.domain.User;
 import ch.vaudoise.vaudoiseapi.exercice.repository.UserRepository;
+import java.io.Serializable;
 import java.util.*;
 import org.hibernate.validator.internal.constraintvalidators.hv.EmailValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,16 +20,30 @@ import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Authenticate a user from the database.
+ * <p>
+ * The activated users are kept in the {@value #USER_DETAILS_CACHE} cache as {@link CachedPrincipal}s, keyed by the
+ * lower case login or email they authenticated with, so that the authentications of a known user, including every
+ * remember-me auto-login, neither load the user nor map its authorities. The entries are evicted by
+ * {@link ch.vaudoise.vaudoiseapi.exercice.service.UserService} whenever a user changes.
  */
 @Component("userDetailsService")
 public class DomainUserDetailsService implements UserDetailsService {
 
+    /**
+     * Cache of the principals of the activated users. A login with the shape of an email is always looked up as an
+     * email, so the login and email keys never collide.
+     */
+    public static final String USER_DETAILS_CACHE = "userDetails";
+
     private static final Logger LOG = LoggerFactory.getLogger(DomainUserDetailsService.class);
 
     private final UserRepository userRepository;
 
-    public DomainUserDetailsService(UserRepository userRepository) {
+    private final Cache userDetailsCache;
+
+    public DomainUserDetailsService(UserRepository userRepository, CacheManager cacheManager) {
         this.userRepository = userRepository;
+        this.userDetailsCache = Objects.requireNonNull(cacheManager.getCache(USER_DETAILS_CACHE));
     }
 
     @Override
@@ -34,25 +51,58 @@ public class DomainUserDetailsService implements UserDetailsService {
     public UserDetails loadUserByUsername(final String login) {
         LOG.debug("Authenticating {}", login);
 
+        String key = login.toLowerCase(Locale.ENGLISH);
+        CachedPrincipal principal = userDetailsCache.get(key, CachedPrincipal.class);
+        if (principal == null) {
+            principal = CachedPrincipal.fromUser(loadActivatedUser(login));
+            userDetailsCache.put(key, principal);
+        }
+        return principal.toUserDetails();
+    }
+
+    private User loadActivatedUser(String login) {
         if (new EmailValidator().isValid(login, null)) {
             return userRepository
                 .findOneWithAuthoritiesByEmailIgnoreCase(login)
-                .map(user -> createSpringSecurityUser(login, user))
+                .map(user -> checkActivated(login, user))
                 .orElseThrow(() -> new UsernameNotFoundException("User with email " + login + " was not found in the database"));
         }
 
         String lowercaseLogin = login.toLowerCase(Locale.ENGLISH);
         return userRepository
             .findOneWithAuthoritiesByLogin(lowercaseLogin)
-            .map(user -> createSpringSecurityUser(lowercaseLogin, user))
+            .map(user -> checkActivated(lowercaseLogin, user))
             .orElseThrow(() -> new UsernameNotFoundException("User " + lowercaseLogin + " was not found in the database"));
     }
 
-    private org.springframework.security.core.userdetails.User createSpringSecurityUser(String lowercaseLogin, User user) {
+    private User checkActivated(String lowercaseLogin, User user) {
         if (!user.isActivated()) {
             throw new UserNotActivatedException("User " + lowercaseLogin + " was not activated");
         }
-        return UserWithId.fromUser(user);
+        return user;
+    }
+
+    /**
+     * Immutable snapshot of an activated user, with its authorities already mapped. The {@link UserDetails} handed out
+     * are copies, because the authentication erases the credentials of its principal.
+     */
+    record CachedPrincipal(String login, String password, List<GrantedAuthority> authorities, Long id) implements Serializable {
+        CachedPrincipal {
+            authorities = List.copyOf(authorities);
+        }
+
+        static CachedPrincipal fromUser(User user) {
+            return new CachedPrincipal(
+                user.getLogin(),
+                user.getPassword(),
+                user.getAuthorities().stream().map(Authority::getName).<GrantedAuthority>map(SimpleGrantedAuthority::new).toList(),
+                user.getId()
+            );
+        }
+
+        UserWithId toUserDetails() {
+            return new UserWithId(login, password, authorities, id);
+        }
     }
 
     public static class UserWithId extends org.springframework.security.core.userdetails.User {
@@ -8,8 +8,12 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.dao.DataAccessException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,7 +21,6 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.rememberme.*;
 import org.springframework.stereotype.Service;
 import tech.jhipster.config.JHipsterProperties;
-import tech.jhipster.security.PersistentTokenCache;
 import tech.jhipster.security.RandomUtil;
 
 /**
@@ -33,9 +36,11 @@ import tech.jhipster.security.RandomUtil;
  * <li>When a user logs out, only his current session is invalidated, and not all of his sessions</li>
  * </ul>
  * <p>
- * Please note that it allows the use of the same token for 5 seconds, and this value stored in a specific
- * cache during that period. This is to allow concurrent requests from the same user: otherwise, two
- * requests being sent at the same time could invalidate each other's token.
+ * Please note that it allows the use of the same token for 5 seconds, and this value stored in the
+ * {@value #UPGRADED_TOKEN_CACHE} cache during that period. This is to allow concurrent requests from the same
+ * user: otherwise, two requests being sent at the same time could invalidate each other's token. The requests presenting the
+ * same series are serialized on a lock striped by series, so the auto-logins of other sessions proceed
+ * in parallel.
  * <p>
  * This is inspired by:
  * <ul>
@@ -48,6 +53,12 @@ import tech.jhipster.security.RandomUtil;
 @Service
 public class PersistentTokenRememberMeServices extends AbstractRememberMeServices {
 
+    /**
+     * Cache of the tokens upgraded in the last seconds. The region must hold every token upgraded during
+     * {@link #UPGRADED_TOKEN_VALIDITY_MILLIS}: a token evicted earlier fails the parallel requests still presenting it.
+     */
+    public static final String UPGRADED_TOKEN_CACHE = "upgradedRememberMeTokens";
+
     private static final Logger LOG = LoggerFactory.getLogger(PersistentTokenRememberMeServices.class);
 
     // Token is valid for one month
@@ -57,7 +68,11 @@ public class PersistentTokenRememberMeServices extends AbstractRememberMeService
 
     private static final long UPGRADED_TOKEN_VALIDITY_MILLIS = 5000l;
 
-    private final PersistentTokenCache<UpgradedRememberMeToken> upgradedTokenCache;
+    private static final int SERIES_LOCK_STRIPES = 256;
+
+    private final Cache upgradedTokenCache;
+
+    private final Lock[] seriesLocks = new Lock[SERIES_LOCK_STRIPES];
 
     private final PersistentTokenRepository persistentTokenRepository;
 
@@ -67,25 +82,26 @@ public class PersistentTokenRememberMeServices extends AbstractRememberMeService
         JHipsterProperties jHipsterProperties,
         org.springframework.security.core.userdetails.UserDetailsService userDetailsService,
         PersistentTokenRepository persistentTokenRepository,
-        UserRepository userRepository
+        UserRepository userRepository,
+        CacheManager cacheManager
     ) {
         super(jHipsterProperties.getSecurity().getRememberMe().getKey(), userDetailsService);
         this.persistentTokenRepository = persistentTokenRepository;
         this.userRepository = userRepository;
-        upgradedTokenCache = new PersistentTokenCache<>(UPGRADED_TOKEN_VALIDITY_MILLIS);
+        upgradedTokenCache = Objects.requireNonNull(cacheManager.getCache(UPGRADED_TOKEN_CACHE));
+        Arrays.setAll(seriesLocks, i -> new ReentrantLock());
     }
 
     @Override
     protected UserDetails processAutoLoginCookie(String[] cookieTokens, HttpServletRequest request, HttpServletResponse response) {
-        synchronized (this) { // prevent 2 authentication requests from the same user in parallel
-            String login = null;
-            UpgradedRememberMeToken upgradedToken = upgradedTokenCache.get(cookieTokens[0]);
-            if (upgradedToken != null) {
-                login = upgradedToken.getUserLoginIfValid(cookieTokens);
+        String login;
+        Lock seriesLock = seriesLock(cookieTokens[0]);
+        seriesLock.lock(); // prevent 2 authentication requests with the same cookie in parallel
+        try {
+            login = upgradedTokenLogin(cookieTokens);
+            if (login != null) {
                 LOG.debug("Detected previously upgraded login token for user '{}'", login);
-            }
-
-            if (login == null) {
+            } else {
                 PersistentToken token = getPersistentToken(cookieTokens);
                 login = token.getUser().getLogin();
 
@@ -104,8 +120,10 @@ public class PersistentTokenRememberMeServices extends AbstractRememberMeService
                 addCookie(token, request, response);
                 upgradedTokenCache.put(cookieTokens[0], new UpgradedRememberMeToken(cookieTokens, login));
             }
-            return getUserDetailsService().loadUserByUsername(login);
+        } finally {
+            seriesLock.unlock();
         }
+        return getUserDetailsService().loadUserByUsername(login);
     }
 
     @Override
@@ -192,6 +210,18 @@ public class PersistentTokenRememberMeServices extends AbstractRememberMeService
         return token;
     }
 
+    /**
+     * Return the login of a token upgraded in the last seconds, if the cookie presents it.
+     */
+    private String upgradedTokenLogin(String[] cookieTokens) {
+        UpgradedRememberMeToken upgradedToken = upgradedTokenCache.get(cookieTokens[0], UpgradedRememberMeToken.class);
+        return upgradedToken != null ? upgradedToken.getUserLoginIfValid(cookieTokens) : null;
+    }
+
+    private Lock seriesLock(String series) {
+        return seriesLocks[Math.floorMod(series.hashCode(), SERIES_LOCK_STRIPES)];
+    }
+
     private void addCookie(PersistentToken token, HttpServletRequest request, HttpServletResponse response) {
         setCookie(new String[] { token.getSeries(), token.getTokenValue() }, TOKEN_VALIDITY_SECONDS, request, response);
     }
@@ -204,13 +234,23 @@ public class PersistentTokenRememberMeServices extends AbstractRememberMeService
 
         private final String userLogin;
 
+        private final long upgradeTime;
+
         UpgradedRememberMeToken(String[] upgradedToken, String userLogin) {
             this.upgradedToken = upgradedToken;
             this.userLogin = userLogin;
+            this.upgradeTime = System.currentTimeMillis();
         }
 
+        /**
+         * The validity is checked here rather than left to the expiry of the cache, which is configurable.
+         */
         String getUserLoginIfValid(String[] currentToken) {
-            if (currentToken[0].equals(this.upgradedToken[0]) && currentToken[1].equals(this.upgradedToken[1])) {
+            if (
+                System.currentTimeMillis() - this.upgradeTime <= UPGRADED_TOKEN_VALIDITY_MILLIS &&
+                currentToken[0].equals(this.upgradedToken[0]) &&
+                currentToken[1].equals(this.upgradedToken[1])
+            ) {
                 return this.userLogin;
             }
             return null;
@@ -1,20 +1,30 @@
 package ch.vaudoise.vaudoiseapi.exercice.service;
 
+import ch.vaudoise.vaudoiseapi.exercice.config.ApplicationProperties;
 import ch.vaudoise.vaudoiseapi.exercice.domain.ClientInfo;
+import ch.vaudoise.vaudoiseapi.exercice.domain.ClientInfo_;
 import ch.vaudoise.vaudoiseapi.exercice.repository.ClientInfoRepository;
+import ch.vaudoise.vaudoiseapi.exercice.repository.PartialUpdate;
+import ch.vaudoise.vaudoiseapi.exercice.repository.RowVersion;
+import ch.vaudoise.vaudoiseapi.exercice.repository.RowVersionRepository;
+import ch.vaudoise.vaudoiseapi.exercice.repository.TableStatisticsRepository;
 import ch.vaudoise.vaudoiseapi.exercice.service.dto.ClientInfoDTO;
 import ch.vaudoise.vaudoiseapi.exercice.service.mapper.ClientInfoMapper;
-import java.util.LinkedList;
-import java.util.List;
+import jakarta.persistence.metamodel.SingularAttribute;
+import java.time.Instant;
+import java.util.Iterator;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -30,9 +40,24 @@ public class ClientInfoService {
 
     private final ClientInfoMapper clientInfoMapper;
 
-    public ClientInfoService(ClientInfoRepository clientInfoRepository, ClientInfoMapper clientInfoMapper) {
+    private final ApplicationProperties applicationProperties;
+
+    private final TableStatisticsRepository tableStatisticsRepository;
+
+    private final RowVersionRepository rowVersionRepository;
+
+    public ClientInfoService(
+        ClientInfoRepository clientInfoRepository,
+        ClientInfoMapper clientInfoMapper,
+        ApplicationProperties applicationProperties,
+        TableStatisticsRepository tableStatisticsRepository,
+        RowVersionRepository rowVersionRepository
+    ) {
         this.clientInfoRepository = clientInfoRepository;
         this.clientInfoMapper = clientInfoMapper;
+        this.applicationProperties = applicationProperties;
+        this.tableStatisticsRepository = tableStatisticsRepository;
+        this.rowVersionRepository = rowVersionRepository;
     }
 
     /**
@@ -70,15 +95,49 @@ public class ClientInfoService {
     public Optional<ClientInfoDTO> partialUpdate(ClientInfoDTO clientInfoDTO) {
         LOG.debug("Request to partially update ClientInfo : {}", clientInfoDTO);
 
-        return clientInfoRepository
-            .findById(clientInfoDTO.getId())
-            .map(existingClientInfo -> {
-                clientInfoMapper.partialUpdate(existingClientInfo, clientInfoDTO);
+        return partialUpdate(clientInfoDTO.getId(), clientInfoDTO);
+    }
+
+    /**
+     * Partially update a clientInfo with a single {@code UPDATE} statement, without loading it first.
+     * <p>
+     * Only the non-null fields of the DTO are set; its {@code id} and {@code updateDate} are ignored and
+     * the update date is set to now, as {@link ClientInfo#preUpdate()} would.
+     *
+     * @param id the id of the entity to update.
+     * @param clientInfoDTO the fields to update.
+     * @return the persisted entity.
+     */
+    public Optional<ClientInfoDTO> partialUpdate(UUID id, ClientInfoDTO clientInfoDTO) {
+        LOG.debug("Request to partially update ClientInfo : {}, {}", id, clientInfoDTO);
+        return partialUpdate(PartialUpdate.of(ClientInfo.class, id), clientInfoDTO);
+    }
+
+    /**
+     * Partially update the clientInfo of an owner, such as a company or a person, with a single {@code UPDATE}
+     * statement keyed through the owner's reference to it, without loading the owner or the clientInfo first.
+     *
+     * @param owner the association of the owner to its clientInfo.
+     * @param ownerId the id of the owner.
+     * @param clientInfoDTO the fields to update.
+     * @return the persisted entity, or empty if the owner does not exist or has no clientInfo.
+     */
+    public Optional<ClientInfoDTO> partialUpdate(SingularAttribute<?, ClientInfo> owner, UUID ownerId, ClientInfoDTO clientInfoDTO) {
+        LOG.debug("Request to partially update ClientInfo through {} : {}, {}", owner.getName(), ownerId, clientInfoDTO);
+        return partialUpdate(PartialUpdate.ofOwner(owner, ownerId), clientInfoDTO);
+    }
 
-                return existingClientInfo;
-            })
-            .map(clientInfoRepository::save)
-            .map(clientInfoMapper::toDto);
+    private Optional<ClientInfoDTO> partialUpdate(PartialUpdate<ClientInfo> update, ClientInfoDTO clientInfoDTO) {
+        update
+            .setIfNotNull(ClientInfo_.creationDate, clientInfoDTO.getCreationDate())
+            .setIfNotNull(ClientInfo_.name, clientInfoDTO.getName())
+            .setIfNotNull(ClientInfo_.email, clientInfoDTO.getEmail())
+            .setIfNotNull(ClientInfo_.phone, clientInfoDTO.getPhone())
+            .setIfNotNull(ClientInfo_.active, clientInfoDTO.getActive());
+        if (!update.isEmpty()) {
+            update.setIfNotNull(ClientInfo_.updateDate, Instant.now());
+        }
+        return clientInfoRepository.partialUpdate(update).map(clientInfoMapper::toDto);
     }
 
     /**
@@ -90,33 +149,103 @@ public class ClientInfoService {
     @Transactional(readOnly = true)
     public Page<ClientInfoDTO> findAll(Pageable pageable) {
         LOG.debug("Request to get all ClientInfos");
-        return clientInfoRepository.findAll(pageable).map(clientInfoMapper::toDto);
+        return clientInfoRepository.findAllViews(pageable).map(clientInfoMapper::toDto);
+    }
+
+    /**
+     * Get a page of the clientInfos, without counting them.
+     *
+     * @param pageable the pagination information.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<ClientInfoDTO> findAllSlice(Pageable pageable) {
+        LOG.debug("Request to get a slice of ClientInfos");
+        return clientInfoRepository.findViewSlice(pageable).map(clientInfoMapper::toDto);
+    }
+
+    /**
+     * Estimate the number of clientInfos from the table statistics, without counting them.
+     *
+     * @return the estimated number of entities.
+     */
+    @Transactional(readOnly = true)
+    public long estimateCount() {
+        return tableStatisticsRepository.estimateRowCount(ClientInfo.class);
     }
 
     /**
-     *  Get all the clientInfos where Person is {@code null}.
-     *  @return the list of entities.
+     * Get all the clientInfos where Person is {@code null}.
+     *
+     * @param pageable the pagination information.
+     * @return the list of entities.
      */
     @Transactional(readOnly = true)
-    public List<ClientInfoDTO> findAllWherePersonIsNull() {
+    public Page<ClientInfoDTO> findAllWherePersonIsNull(Pageable pageable) {
         LOG.debug("Request to get all clientInfos where Person is null");
-        return StreamSupport.stream(clientInfoRepository.findAll().spliterator(), false)
-            .filter(clientInfo -> clientInfo.getPerson() == null)
-            .map(clientInfoMapper::toDto)
-            .collect(Collectors.toCollection(LinkedList::new));
+        return clientInfoRepository.findAllWherePersonIsNull(pageable).map(clientInfoMapper::toDto);
     }
 
     /**
-     *  Get all the clientInfos where Company is {@code null}.
-     *  @return the list of entities.
+     * Get a page of the clientInfos where Person is {@code null}, without counting them.
+     *
+     * @param pageable the pagination information.
+     * @return the list of entities.
      */
     @Transactional(readOnly = true)
-    public List<ClientInfoDTO> findAllWhereCompanyIsNull() {
+    public Slice<ClientInfoDTO> findSliceWherePersonIsNull(Pageable pageable) {
+        LOG.debug("Request to get a slice of clientInfos where Person is null");
+        return clientInfoRepository.findSliceWherePersonIsNull(pageable).map(clientInfoMapper::toDto);
+    }
+
+    /**
+     * Get all the clientInfos where Company is {@code null}.
+     *
+     * @param pageable the pagination information.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<ClientInfoDTO> findAllWhereCompanyIsNull(Pageable pageable) {
         LOG.debug("Request to get all clientInfos where Company is null");
-        return StreamSupport.stream(clientInfoRepository.findAll().spliterator(), false)
-            .filter(clientInfo -> clientInfo.getCompany() == null)
-            .map(clientInfoMapper::toDto)
-            .collect(Collectors.toCollection(LinkedList::new));
+        return clientInfoRepository.findAllWhereCompanyIsNull(pageable).map(clientInfoMapper::toDto);
+    }
+
+    /**
+     * Get a page of the clientInfos where Company is {@code null}, without counting them.
+     *
+     * @param pageable the pagination information.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<ClientInfoDTO> findSliceWhereCompanyIsNull(Pageable pageable) {
+        LOG.debug("Request to get a slice of clientInfos where Company is null");
+        return clientInfoRepository.findSliceWhereCompanyIsNull(pageable).map(clientInfoMapper::toDto);
+    }
+
+    /**
+     * Stream all the clientInfos where Person is {@code null} to a consumer, without holding them in memory.
+     *
+     * @param consumer the consumer of each clientInfo, called within the read transaction.
+     * @return the number of clientInfos consumed.
+     */
+    @Transactional(readOnly = true)
+    public long exportWherePersonIsNull(Consumer<ClientInfoDTO> consumer) {
+        LOG.debug("Request to export clientInfos where Person is null");
+        int fetchSize = applicationProperties.getClientInfoExport().getFetchSize();
+        return export(clientInfoRepository.streamAllWherePersonIsNull(fetchSize).map(clientInfoMapper::toDto), consumer);
+    }
+
+    /**
+     * Stream all the clientInfos where Company is {@code null} to a consumer, without holding them in memory.
+     *
+     * @param consumer the consumer of each clientInfo, called within the read transaction.
+     * @return the number of clientInfos consumed.
+     */
+    @Transactional(readOnly = true)
+    public long exportWhereCompanyIsNull(Consumer<ClientInfoDTO> consumer) {
+        LOG.debug("Request to export clientInfos where Company is null");
+        int fetchSize = applicationProperties.getClientInfoExport().getFetchSize();
+        return export(clientInfoRepository.streamAllWhereCompanyIsNull(fetchSize).map(clientInfoMapper::toDto), consumer);
     }
 
     /**
@@ -131,6 +260,24 @@ public class ClientInfoService {
         return clientInfoRepository.findById(id).map(clientInfoMapper::toDto);
     }
 
+    /**
+     * Get one clientInfo by id with its version, both read from the same snapshot so that the version describes exactly
+     * the returned clientInfo.
+     *
+     * @param id the id of the entity.
+     * @param current tells whether the client copy of a version is current; the entity is then not loaded.
+     * @return the version with the entity, without it when the client copy is current, or empty if the entity does not exist.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public Optional<Versioned<ClientInfoDTO>> findOneIfModified(UUID id, Predicate<RowVersion> current) {
+        LOG.debug("Request to get ClientInfo if modified : {}", id);
+        return rowVersionRepository.findClientInfoVersion(id).flatMap(version ->
+            current.test(version)
+                ? Optional.of(new Versioned<>(version, null))
+                : clientInfoRepository.findOneById(id).map(clientInfoMapper::toDto).map(dto -> new Versioned<>(version, dto))
+        );
+    }
+
     /**
      * Delete the clientInfo by id.
      *
@@ -140,4 +287,14 @@ public class ClientInfoService {
         LOG.debug("Request to delete ClientInfo : {}", id);
         clientInfoRepository.deleteById(id);
     }
+
+    private static long export(Stream<ClientInfoDTO> stream, Consumer<ClientInfoDTO> consumer) {
+        try (Stream<ClientInfoDTO> clientInfos = stream) {
+            long count = 0;
+            for (Iterator<ClientInfoDTO> iterator = clientInfos.iterator(); iterator.hasNext(); count++) {
+                consumer.accept(iterator.next());
+            }
+            return count;
+        }
+    }
 }
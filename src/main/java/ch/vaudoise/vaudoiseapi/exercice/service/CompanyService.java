@@ -1,25 +1,30 @@
 package ch.vaudoise.vaudoiseapi.exercice.service;
 
-import ch.vaudoise.vaudoiseapi.exercice.domain.ClientInfo;
 import ch.vaudoise.vaudoiseapi.exercice.domain.Company;
-import ch.vaudoise.vaudoiseapi.exercice.domain.Contract;
+import ch.vaudoise.vaudoiseapi.exercice.domain.Company_;
 import ch.vaudoise.vaudoiseapi.exercice.repository.ClientInfoRepository;
 import ch.vaudoise.vaudoiseapi.exercice.repository.CompanyRepository;
 import ch.vaudoise.vaudoiseapi.exercice.repository.ContractRepository;
+import ch.vaudoise.vaudoiseapi.exercice.repository.RowVersion;
+import ch.vaudoise.vaudoiseapi.exercice.repository.RowVersionRepository;
+import ch.vaudoise.vaudoiseapi.exercice.repository.TableStatisticsRepository;
 import ch.vaudoise.vaudoiseapi.exercice.service.dto.CompanyDTO;
 import ch.vaudoise.vaudoiseapi.exercice.service.dto.CompanyUpdateDTO;
+import ch.vaudoise.vaudoiseapi.exercice.service.dto.DeactivationResultDTO;
 import ch.vaudoise.vaudoiseapi.exercice.service.mapper.CompanyMapper;
 import ch.vaudoise.vaudoiseapi.exercice.service.mapper.CompanyUpdateMapper;
 import jakarta.persistence.EntityNotFoundException;
 import java.time.Instant;
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Predicate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -41,18 +46,30 @@ public class CompanyService {
 
     private final ClientInfoRepository clientInfoRepository;
 
+    private final ClientInfoService clientInfoService;
+
+    private final TableStatisticsRepository tableStatisticsRepository;
+
+    private final RowVersionRepository rowVersionRepository;
+
     public CompanyService(
         CompanyRepository companyRepository,
         CompanyMapper companyMapper,
         CompanyUpdateMapper companyUpdateMapper,
         ContractRepository contractRepository,
-        ClientInfoRepository clientInfoRepository
+        ClientInfoRepository clientInfoRepository,
+        ClientInfoService clientInfoService,
+        TableStatisticsRepository tableStatisticsRepository,
+        RowVersionRepository rowVersionRepository
     ) {
         this.companyRepository = companyRepository;
         this.companyMapper = companyMapper;
         this.companyUpdateMapper = companyUpdateMapper;
         this.contractRepository = contractRepository;
         this.clientInfoRepository = clientInfoRepository;
+        this.clientInfoService = clientInfoService;
+        this.tableStatisticsRepository = tableStatisticsRepository;
+        this.rowVersionRepository = rowVersionRepository;
     }
 
     /**
@@ -91,20 +108,19 @@ public class CompanyService {
      * Partially update a company.
      *
      * @param companyUpdateDTO the entity to update partially.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if the company does not exist or has no client info to update.
      */
     public Optional<CompanyDTO> partialUpdate(CompanyUpdateDTO companyUpdateDTO) {
         LOG.debug("Request to partially update Company : {}", companyUpdateDTO);
 
-        return companyRepository
-            .findById(companyUpdateDTO.getId())
-            .map(existingCompany -> {
-                companyUpdateMapper.partialUpdate(existingCompany, companyUpdateDTO);
-
-                return existingCompany;
-            })
-            .map(companyRepository::save)
-            .map(companyMapper::toDto);
+        // The company itself has nothing to update, only its client info is written, keyed through the company
+        if (
+            companyUpdateDTO.getClientInfo() != null &&
+            clientInfoService.partialUpdate(Company_.clientInfo, companyUpdateDTO.getId(), companyUpdateDTO.getClientInfo()).isEmpty()
+        ) {
+            return Optional.empty();
+        }
+        return companyRepository.findOneWithClientInfoById(companyUpdateDTO.getId()).map(companyMapper::toDto);
     }
 
     /**
@@ -116,7 +132,29 @@ public class CompanyService {
     @Transactional(readOnly = true)
     public Page<CompanyDTO> findAll(Pageable pageable) {
         LOG.debug("Request to get all Companies");
-        return companyRepository.findAll(pageable).map(companyMapper::toDto);
+        return companyRepository.findAllViews(pageable).map(companyMapper::toDto);
+    }
+
+    /**
+     * Get a page of the companies, without counting them.
+     *
+     * @param pageable the pagination information.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<CompanyDTO> findAllSlice(Pageable pageable) {
+        LOG.debug("Request to get a slice of Companies");
+        return companyRepository.findViewSlice(pageable).map(companyMapper::toDto);
+    }
+
+    /**
+     * Estimate the number of companies from the table statistics, without counting them.
+     *
+     * @return the estimated number of entities.
+     */
+    @Transactional(readOnly = true)
+    public long estimateCount() {
+        return tableStatisticsRepository.estimateRowCount(Company.class);
     }
 
     /**
@@ -128,36 +166,49 @@ public class CompanyService {
     @Transactional(readOnly = true)
     public Optional<CompanyDTO> findOne(UUID id) {
         LOG.debug("Request to get Company : {}", id);
-        return companyRepository.findById(id).map(companyMapper::toDto);
+        return companyRepository.findOneWithClientInfoById(id).map(companyMapper::toDto);
+    }
+
+    /**
+     * Get one company by id with its version, both read from the same snapshot so that the version describes exactly
+     * the returned company.
+     *
+     * @param id the id of the entity.
+     * @param current tells whether the client copy of a version is current; the entity is then not loaded.
+     * @return the version with the entity, without it when the client copy is current, or empty if the entity does not exist.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public Optional<Versioned<CompanyDTO>> findOneIfModified(UUID id, Predicate<RowVersion> current) {
+        LOG.debug("Request to get Company if modified : {}", id);
+        return rowVersionRepository.findCompanyVersion(id).flatMap(version ->
+            current.test(version)
+                ? Optional.of(new Versioned<>(version, null))
+                : companyRepository.findOneWithClientInfoById(id).map(companyMapper::toDto).map(dto -> new Versioned<>(version, dto))
+        );
     }
 
     /**
      * Deactivates a company and its associated entities.
      *
-     * This method performs the following operations:
-     * 1. Deactivates all contracts associated with the company by setting their end date to current time
+     * This method performs the following operations, each as a single set-based statement:
+     * 1. Deactivates all active contracts associated with the company by setting their end date to current time,
+     *    contracts that have already ended keep their end date
      * 2. Deactivates the company's client information by setting active status to false
      *
      * @param id The UUID of the company to be deactivated
+     * @return the number of contracts and client infos deactivated
      * @throws RuntimeException if any database operation fails
      */
-    public void delete(UUID id) {
+    @RetryOnPartitionMove
+    public DeactivationResultDTO delete(UUID id) {
         LOG.debug("Request to delete Company : {}", id);
 
         Instant now = Instant.now();
 
-        // Deactivate contracts
-        List<Contract> contracts = contractRepository.findByCompanyId(id);
-        contracts.forEach(contract -> contract.setEndDate(now));
-        contractRepository.saveAll(contracts);
+        int contractCount = contractRepository.deactivateByCompanyId(id, now);
+        int clientInfoCount = clientInfoRepository.deactivateByCompanyId(id, now);
 
-        // Deactivate client info
-        companyRepository
-            .findById(id)
-            .ifPresent(company -> {
-                ClientInfo clientInfo = company.getClientInfo();
-                clientInfo.setActive(false);
-                clientInfoRepository.save(clientInfo);
-            });
+        LOG.debug("Deactivated {} contract(s) and {} client info(s) of Company : {}", contractCount, clientInfoCount, id);
+        return new DeactivationResultDTO(contractCount, clientInfoCount);
     }
 }
@@ -0,0 +1,99 @@
+package ch.vaudoise.vaudoiseapi.exercice.service;
+
+import ch.vaudoise.vaudoiseapi.exercice.config.ApplicationProperties;
+import ch.vaudoise.vaudoiseapi.exercice.repository.ContractArchiveRepository;
+import ch.vaudoise.vaudoiseapi.exercice.service.dto.ContractArchiveDTO;
+import ch.vaudoise.vaudoiseapi.exercice.service.mapper.ContractArchiveMapper;
+import java.time.Instant;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service Implementation for archiving ended {@link ch.vaudoise.vaudoiseapi.exercice.domain.Contract}s and reading
+ * the {@link ch.vaudoise.vaudoiseapi.exercice.domain.ContractArchive}.
+ * <p>
+ * Archiving keeps the live contract table and its indexes limited to the contracts still likely to be read.
+ */
+@Service
+@Transactional
+public class ContractArchiveService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ContractArchiveService.class);
+
+    private final ContractArchiveRepository contractArchiveRepository;
+
+    private final ContractArchiveMapper contractArchiveMapper;
+
+    private final ApplicationProperties applicationProperties;
+
+    public ContractArchiveService(
+        ContractArchiveRepository contractArchiveRepository,
+        ContractArchiveMapper contractArchiveMapper,
+        ApplicationProperties applicationProperties
+    ) {
+        this.contractArchiveRepository = contractArchiveRepository;
+        this.contractArchiveMapper = contractArchiveMapper;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Moves the contracts that ended more than {@code application.contract-archive.retention} ago to the archive.
+     * <p>
+     * Each batch is archived in its own short transaction when the job runs outside of one, so that the job never holds
+     * many row locks for long.
+     * <p>
+     * This is scheduled to get fired every day, see {@code application.contract-archive.cron}.
+     *
+     * @return the number of contracts archived.
+     */
+    @Scheduled(cron = "${application.contract-archive.cron:0 0 3 * * ?}")
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public long archiveEndedContracts() {
+        ApplicationProperties.ContractArchive properties = applicationProperties.getContractArchive();
+        Instant now = Instant.now();
+        Instant endedBefore = now.minus(properties.getRetention());
+        int batchSize = properties.getBatchSize();
+
+        long archived = 0;
+        int batch;
+        do {
+            batch = PartitionMoveRetry.retry(() -> contractArchiveRepository.archiveEndedBefore(endedBefore, batchSize, now));
+            archived += batch;
+        } while (batch > 0);
+        LOG.debug("Archived {} contract(s) ended before {}", archived, endedBefore);
+        return archived;
+    }
+
+    /**
+     * Get the archived contracts of a company.
+     *
+     * @param companyId the id of the company.
+     * @param pageable the pagination information.
+     * @return the list of archived contracts.
+     */
+    @Transactional(readOnly = true)
+    public Page<ContractArchiveDTO> findByCompanyId(UUID companyId, Pageable pageable) {
+        LOG.debug("Request to get archived Contracts of Company : {}", companyId);
+        return contractArchiveRepository.findByCompanyId(companyId, pageable).map(contractArchiveMapper::toDto);
+    }
+
+    /**
+     * Get the archived contracts of a person.
+     *
+     * @param personId the id of the person.
+     * @param pageable the pagination information.
+     * @return the list of archived contracts.
+     */
+    @Transactional(readOnly = true)
+    public Page<ContractArchiveDTO> findByPersonId(UUID personId, Pageable pageable) {
+        LOG.debug("Request to get archived Contracts of Person : {}", personId);
+        return contractArchiveRepository.findByPersonId(personId, pageable).map(contractArchiveMapper::toDto);
+    }
+}
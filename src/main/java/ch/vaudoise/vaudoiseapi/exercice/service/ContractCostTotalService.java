@@ -0,0 +1,211 @@
+package ch.vaudoise.vaudoiseapi.exercice.service;
+
+import ch.vaudoise.vaudoiseapi.exercice.config.ApplicationProperties;
+import ch.vaudoise.vaudoiseapi.exercice.domain.ContractCostTotal;
+import ch.vaudoise.vaudoiseapi.exercice.domain.enumeration.ContractOwnerType;
+import ch.vaudoise.vaudoiseapi.exercice.repository.ContractCostTotalRepository;
+import ch.vaudoise.vaudoiseapi.exercice.repository.ContractRepository;
+import ch.vaudoise.vaudoiseapi.exercice.repository.OwnerCostTotal;
+import ch.vaudoise.vaudoiseapi.exercice.service.dto.CostTotalsDTO;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service reading and maintaining the {@link ContractCostTotal} of every contract owner.
+ * <p>
+ * A contract contributes to its owner's total while its {@code costTotalTracked} flag is set. The database sets the
+ * flag of every active contract and applies the changes of the tracked contracts to the totals, in the transaction
+ * of the write, whatever path the write takes. Contracts whose end date passes are untracked by
+ * {@link #sweepExpiredContracts()}, so a total may include a contract that ended less than one sweep delay ago.
+ */
+@Service
+@Transactional
+public class ContractCostTotalService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ContractCostTotalService.class);
+
+    /**
+     * Maximum number of owner ids bound to a single {@code IN} list. A power of two, so that with
+     * {@code hibernate.query.in_clause_parameter_padding} every full chunk reuses the same statement.
+     */
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1024;
+
+    private final ContractCostTotalRepository contractCostTotalRepository;
+
+    private final ContractRepository contractRepository;
+
+    private final ApplicationProperties applicationProperties;
+
+    public ContractCostTotalService(
+        ContractCostTotalRepository contractCostTotalRepository,
+        ContractRepository contractRepository,
+        ApplicationProperties applicationProperties
+    ) {
+        this.contractCostTotalRepository = contractCostTotalRepository;
+        this.contractRepository = contractRepository;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Gets the cost amount total of the active contracts of an owner.
+     *
+     * @param ownerId the id of the company or person.
+     * @return the total, or {@code null} if the owner has no active contract.
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal getActiveCostAmountTotal(UUID ownerId) {
+        LOG.debug("Request to get the running cost amount total of owner : {}", ownerId);
+        return contractCostTotalRepository
+            .findTotal(ownerId)
+            .filter(total -> total.getContractCount() > 0)
+            .map(OwnerCostTotal::getCostAmountTotal)
+            .orElse(null);
+    }
+
+    /**
+     * Gets the cost amount totals of the active contracts of several owners of the same type.
+     *
+     * @param ownerType the type of the owners.
+     * @param ownerIds  the ids of the owners.
+     * @return the totals keyed by owner id, in the iteration order of {@code ownerIds}, with
+     * {@link CostTotalsDTO.CostTotal#NONE} for owners without any active contract.
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, CostTotalsDTO.CostTotal> getActiveCostTotals(ContractOwnerType ownerType, Collection<UUID> ownerIds) {
+        LOG.debug("Request to get the running cost amount totals of {} {} owner(s)", ownerIds.size(), ownerType);
+        Map<UUID, CostTotalsDTO.CostTotal> result = new LinkedHashMap<>();
+        ownerIds.forEach(ownerId -> result.put(ownerId, CostTotalsDTO.CostTotal.NONE));
+
+        List<UUID> ids = new ArrayList<>(result.keySet());
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, ids.size()));
+            for (OwnerCostTotal total : contractCostTotalRepository.findTotals(ownerType.name(), chunk)) {
+                if (total.getContractCount() > 0) {
+                    result.put(total.getOwnerId(), new CostTotalsDTO.CostTotal(total.getCostAmountTotal(), total.getContractCount()));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Untracks the contracts whose end date has passed, one bounded batch per transaction.
+     * <p>
+     * This is scheduled to get fired with a fixed delay, which also delays the first run after startup, see
+     * {@code application.contract-cost-total.sweep-delay}.
+     */
+    @Scheduled(
+        fixedDelayString = "${application.contract-cost-total.sweep-delay:60000}",
+        initialDelayString = "${application.contract-cost-total.sweep-delay:60000}"
+    )
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void sweepExpiredContracts() {
+        sweepExpiredContracts(Instant.now());
+    }
+
+    /**
+     * Verifies every running total against the live sum of the owner's active contracts, and repairs
+     * the ones out of sync unless {@code application.contract-cost-total.reconcile-repair} is disabled.
+     * <p>
+     * This is scheduled to get fired every day, see {@code application.contract-cost-total.reconcile-cron}.
+     *
+     * @return the number of owners whose running total did not match the live sum.
+     */
+    @Scheduled(cron = "${application.contract-cost-total.reconcile-cron:0 30 2 * * ?}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int reconcile() {
+        Instant now = Instant.now();
+        sweepExpiredContracts(now);
+
+        Map<UUID, ContractCostTotal> totals = new HashMap<>();
+        contractCostTotalRepository.findAll().forEach(total -> totals.put(total.getOwnerId(), total));
+
+        int mismatches = 0;
+        mismatches += reconcile(
+            contractRepository.getActiveCostAmountTotalsGroupedByCompany(now),
+            ContractOwnerType.COMPANY,
+            totals,
+            now
+        );
+        mismatches += reconcile(contractRepository.getActiveCostAmountTotalsGroupedByPerson(now), ContractOwnerType.PERSON, totals, now);
+
+        // Remaining totals have no active contract left
+        for (ContractCostTotal total : totals.values()) {
+            if (total.getActiveContractCount() != 0 || total.getActiveCostAmountTotal().signum() != 0) {
+                mismatches++;
+                repair(total.getOwnerId(), total.getOwnerType(), now);
+            }
+        }
+
+        if (mismatches > 0) {
+            LOG.warn("Reconciliation found {} contract cost total(s) out of sync", mismatches);
+        } else {
+            LOG.debug("Reconciliation found all contract cost totals in sync");
+        }
+        return mismatches;
+    }
+
+    private void sweepExpiredContracts(Instant now) {
+        if (!contractRepository.existsByCostTotalTrackedTrueAndEndDateLessThanEqual(now)) {
+            return;
+        }
+        int batchSize = applicationProperties.getContractCostTotal().getSweepBatchSize();
+        int swept;
+        int batches = 0;
+        do {
+            swept = PartitionMoveRetry.retry(() -> contractCostTotalRepository.sweepExpired(now, batchSize));
+            batches++;
+        } while (swept > 0);
+        LOG.debug("Swept expired contracts in {} batch(es)", batches);
+    }
+
+    private int reconcile(
+        Iterable<OwnerCostTotal> liveTotals,
+        ContractOwnerType ownerType,
+        Map<UUID, ContractCostTotal> totals,
+        Instant now
+    ) {
+        int mismatches = 0;
+        for (OwnerCostTotal live : liveTotals) {
+            ContractCostTotal total = totals.remove(live.getOwnerId());
+            if (
+                total == null ||
+                !Objects.equals(total.getActiveContractCount(), live.getContractCount()) ||
+                total.getActiveCostAmountTotal().compareTo(live.getCostAmountTotal()) != 0
+            ) {
+                mismatches++;
+                LOG.warn(
+                    "Contract cost total of {} {} out of sync: {} (live {} over {} contract(s))",
+                    ownerType,
+                    live.getOwnerId(),
+                    total,
+                    live.getCostAmountTotal(),
+                    live.getContractCount()
+                );
+                repair(live.getOwnerId(), ownerType, now);
+            }
+        }
+        return mismatches;
+    }
+
+    private void repair(UUID ownerId, ContractOwnerType ownerType, Instant now) {
+        if (Boolean.TRUE.equals(applicationProperties.getContractCostTotal().getReconcileRepair())) {
+            PartitionMoveRetry.retry(() -> contractCostTotalRepository.retrack(ownerId, now));
+            contractCostTotalRepository.resync(ownerId, ownerType.name(), now);
+        }
+    }
+}
@@ -1,22 +1,43 @@
 package ch.vaudoise.vaudoiseapi.exercice.service;
 
+import ch.vaudoise.vaudoiseapi.exercice.config.ApplicationProperties;
 import ch.vaudoise.vaudoiseapi.exercice.domain.Contract;
+import ch.vaudoise.vaudoiseapi.exercice.domain.Contract_;
+import ch.vaudoise.vaudoiseapi.exercice.domain.enumeration.ContractOwnerType;
 import ch.vaudoise.vaudoiseapi.exercice.repository.ContractRepository;
+import ch.vaudoise.vaudoiseapi.exercice.repository.PartialUpdate;
+import ch.vaudoise.vaudoiseapi.exercice.repository.RowVersion;
+import ch.vaudoise.vaudoiseapi.exercice.repository.RowVersionRepository;
+import ch.vaudoise.vaudoiseapi.exercice.repository.TableStatisticsRepository;
 import ch.vaudoise.vaudoiseapi.exercice.service.dto.ContractDTO;
+import ch.vaudoise.vaudoiseapi.exercice.service.dto.CostTotalsDTO;
+import ch.vaudoise.vaudoiseapi.exercice.service.dto.CostTotalsRequestDTO;
 import ch.vaudoise.vaudoiseapi.exercice.service.mapper.ContractMapper;
+import ch.vaudoise.vaudoiseapi.exercice.service.specification.ContractCursor;
 import ch.vaudoise.vaudoiseapi.exercice.service.specification.ContractSpecificationsBuilder;
 import ch.vaudoise.vaudoiseapi.exercice.web.rest.errors.InvalidContractException;
 import jakarta.persistence.EntityNotFoundException;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -32,9 +53,28 @@ public class ContractService {
 
     private final ContractMapper contractMapper;
 
-    public ContractService(ContractRepository contractRepository, ContractMapper contractMapper) {
+    private final ContractCostTotalService contractCostTotalService;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final TableStatisticsRepository tableStatisticsRepository;
+
+    private final RowVersionRepository rowVersionRepository;
+
+    public ContractService(
+        ContractRepository contractRepository,
+        ContractMapper contractMapper,
+        ContractCostTotalService contractCostTotalService,
+        ApplicationProperties applicationProperties,
+        TableStatisticsRepository tableStatisticsRepository,
+        RowVersionRepository rowVersionRepository
+    ) {
         this.contractRepository = contractRepository;
         this.contractMapper = contractMapper;
+        this.contractCostTotalService = contractCostTotalService;
+        this.applicationProperties = applicationProperties;
+        this.tableStatisticsRepository = tableStatisticsRepository;
+        this.rowVersionRepository = rowVersionRepository;
     }
 
     /**
@@ -60,6 +100,7 @@ public class ContractService {
      * @param contractDTO the entity to save.
      * @return the persisted entity.
      */
+    @RetryOnPartitionMove
     public ContractDTO update(ContractDTO contractDTO) {
         LOG.debug("Request to update Contract : {}", contractDTO);
 
@@ -94,9 +135,19 @@ public class ContractService {
      * @param contractDTO the entity to update partially.
      * @return the persisted entity.
      */
+    @RetryOnPartitionMove
     public Optional<ContractDTO> partialUpdate(ContractDTO contractDTO) {
         LOG.debug("Request to partially update Contract : {}", contractDTO);
 
+        if (contractDTO.getCostAmount() == null && contractDTO.getEndDate() == null) {
+            // The cost amount and the end date are left unchanged, so the current state is not needed
+            PartialUpdate<Contract> update = PartialUpdate.of(Contract.class, contractDTO.getId())
+                .setIfNotNull(Contract_.creationDate, contractDTO.getCreationDate())
+                .setIfNotNull(Contract_.updateDate, contractDTO.getUpdateDate())
+                .setIfNotNull(Contract_.startDate, contractDTO.getStartDate());
+            return contractRepository.partialUpdate(update).map(contractMapper::toDto);
+        }
+
         return contractRepository
             .findById(contractDTO.getId())
             .map(existingContract -> {
@@ -124,7 +175,29 @@ public class ContractService {
     @Transactional(readOnly = true)
     public Page<ContractDTO> findAll(Pageable pageable) {
         LOG.debug("Request to get all Contracts");
-        return contractRepository.findAll(pageable).map(contractMapper::toDto);
+        return contractRepository.findAllViews(pageable).map(contractMapper::toDto);
+    }
+
+    /**
+     * Get a page of the contracts, without counting them.
+     *
+     * @param pageable the pagination information.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<ContractDTO> findAllSlice(Pageable pageable) {
+        LOG.debug("Request to get a slice of Contracts");
+        return contractRepository.findViewSlice(pageable).map(contractMapper::toDto);
+    }
+
+    /**
+     * Estimate the number of contracts from the table statistics, without counting them.
+     *
+     * @return the estimated number of entities.
+     */
+    @Transactional(readOnly = true)
+    public long estimateCount() {
+        return tableStatisticsRepository.estimateRowCount(Contract.class);
     }
 
     /**
@@ -199,16 +272,168 @@ public class ContractService {
         return contractRepository.findAll(spec, pageable).map(contractMapper::toDto);
     }
 
+    /**
+     * Retrieves the active contracts of the specified company positioned after the given cursor,
+     * optionally filtered by the last update date range.
+     * <p>
+     * Contracts are ordered by {@link ContractCursor#SORT} and located with a seek predicate instead of an offset,
+     * so that the cost of a page does not depend on its depth. No count query is run: one extra row is fetched
+     * to tell whether a next page exists.
+     * </p>
+     *
+     * @param companyId   the unique identifier of the company whose active contracts should be retrieved
+     * @param updatedFrom the lower bound of the update date filter (inclusive), or {@code null} for no lower bound
+     * @param updatedTo   the upper bound of the update date filter (inclusive), or {@code null} for no upper bound
+     * @param after       the position of the last contract of the previous page, or {@code null} for the first page
+     * @param size        the maximum number of contracts to return
+     * @return a {@link Slice} of {@link ContractDTO} representing the active contracts that match the criteria
+     */
+    @Transactional(readOnly = true)
+    public Slice<ContractDTO> findActiveByCompanyIdAfter(
+        UUID companyId,
+        Instant updatedFrom,
+        Instant updatedTo,
+        ContractCursor after,
+        int size
+    ) {
+        LOG.debug("Request to get a slice of active Contracts after : {}", after);
+
+        Specification<Contract> spec = new ContractSpecificationsBuilder()
+            .withCompany(companyId)
+            .active()
+            .updatedBetween(updatedFrom, updatedTo)
+            .after(after)
+            .build();
+
+        return findSlice(spec, size);
+    }
+
+    /**
+     * Retrieves the active contracts of the specified person positioned after the given cursor,
+     * optionally filtered by the last update date range.
+     * <p>
+     * Contracts are ordered by {@link ContractCursor#SORT} and located with a seek predicate instead of an offset,
+     * so that the cost of a page does not depend on its depth. No count query is run: one extra row is fetched
+     * to tell whether a next page exists.
+     * </p>
+     *
+     * @param personId    the unique identifier of the person whose active contracts should be retrieved
+     * @param updatedFrom the lower bound of the update date filter (inclusive), or {@code null} for no lower bound
+     * @param updatedTo   the upper bound of the update date filter (inclusive), or {@code null} for no upper bound
+     * @param after       the position of the last contract of the previous page, or {@code null} for the first page
+     * @param size        the maximum number of contracts to return
+     * @return a {@link Slice} of {@link ContractDTO} representing the active contracts that match the criteria
+     */
+    @Transactional(readOnly = true)
+    public Slice<ContractDTO> findActiveByPersonIdAfter(
+        UUID personId,
+        Instant updatedFrom,
+        Instant updatedTo,
+        ContractCursor after,
+        int size
+    ) {
+        LOG.debug("Request to get a slice of active Contracts after : {}", after);
+
+        Specification<Contract> spec = new ContractSpecificationsBuilder()
+            .withPerson(personId)
+            .active()
+            .updatedBetween(updatedFrom, updatedTo)
+            .after(after)
+            .build();
+
+        return findSlice(spec, size);
+    }
+
+    /**
+     * Streams all the contracts matching the given filters to a consumer, one at a time.
+     * <p>
+     * Contracts are read through a database cursor and mapped row by row, so memory use does not depend
+     * on the number of contracts exported.
+     * </p>
+     *
+     * @param companyId   the company the contracts belong to, or {@code null} for any owner
+     * @param personId    the person the contracts belong to, or {@code null} for any owner
+     * @param active      whether to export the active contracts only
+     * @param updatedFrom the lower bound of the update date filter (inclusive), or {@code null} for no lower bound
+     * @param updatedTo   the upper bound of the update date filter (inclusive), or {@code null} for no upper bound
+     * @param consumer    the consumer receiving each contract
+     * @return the number of contracts exported
+     */
+    @Transactional(readOnly = true)
+    public long export(
+        UUID companyId,
+        UUID personId,
+        boolean active,
+        Instant updatedFrom,
+        Instant updatedTo,
+        Consumer<ContractDTO> consumer
+    ) {
+        LOG.debug("Request to export Contracts");
+
+        ContractSpecificationsBuilder builder = new ContractSpecificationsBuilder().updatedBetween(updatedFrom, updatedTo);
+        if (companyId != null) {
+            builder.withCompany(companyId);
+        }
+        if (personId != null) {
+            builder.withPerson(personId);
+        }
+        if (active) {
+            builder.active();
+        }
+
+        int fetchSize = applicationProperties.getContractExport().getFetchSize();
+        try (Stream<ContractDTO> contracts = contractRepository.streamAll(builder.build(), fetchSize, contractMapper::toDto)) {
+            long count = 0;
+            for (Iterator<ContractDTO> iterator = contracts.iterator(); iterator.hasNext(); count++) {
+                consumer.accept(iterator.next());
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Gets the cost amount total of the active contracts of a company, read from its running total.
+     *
+     * @param companyId the id of the company.
+     * @return the total, or {@code null} if the company has no active contract.
+     */
+    @Transactional(readOnly = true)
     public BigDecimal getActiveCostAmountTotalByCompanyId(UUID companyId) {
         LOG.debug("Request to get the cost amount total of all active Contracts");
 
-        return contractRepository.getActiveCostAmountTotalByCompanyId(companyId);
+        return contractCostTotalService.getActiveCostAmountTotal(companyId);
     }
 
+    /**
+     * Gets the cost amount total of the active contracts of a person, read from its running total.
+     *
+     * @param personId the id of the person.
+     * @return the total, or {@code null} if the person has no active contract.
+     */
+    @Transactional(readOnly = true)
     public BigDecimal getActiveCostAmountTotalByPersonId(UUID personId) {
         LOG.debug("Request to get the cost amount total of all active Contracts");
 
-        return contractRepository.getActiveCostAmountTotalByPersonId(personId);
+        return contractCostTotalService.getActiveCostAmountTotal(personId);
+    }
+
+    /**
+     * Gets the cost amount totals and counts of the active contracts of several companies and persons at once,
+     * read from their running totals.
+     *
+     * @param request the ids of the companies and persons.
+     * @return the totals keyed by owner id.
+     */
+    @Transactional(readOnly = true)
+    public CostTotalsDTO getActiveCostTotals(CostTotalsRequestDTO request) {
+        LOG.debug("Request to get the cost amount totals of active Contracts for several owners");
+
+        Set<UUID> companyIds = Objects.requireNonNullElse(request.companyIds(), Set.of());
+        Set<UUID> personIds = Objects.requireNonNullElse(request.personIds(), Set.of());
+        return new CostTotalsDTO(
+            contractCostTotalService.getActiveCostTotals(ContractOwnerType.COMPANY, companyIds),
+            contractCostTotalService.getActiveCostTotals(ContractOwnerType.PERSON, personIds)
+        );
     }
 
     /**
@@ -223,16 +448,42 @@ public class ContractService {
         return contractRepository.findById(id).map(contractMapper::toDto);
     }
 
+    /**
+     * Get one contract by id with its version, both read from the same snapshot so that the version describes exactly
+     * the returned contract.
+     *
+     * @param id the id of the entity.
+     * @param current tells whether the client copy of a version is current; the entity is then not loaded.
+     * @return the version with the entity, without it when the client copy is current, or empty if the entity does not exist.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public Optional<Versioned<ContractDTO>> findOneIfModified(UUID id, Predicate<RowVersion> current) {
+        LOG.debug("Request to get Contract if modified : {}", id);
+        return rowVersionRepository.findContractVersion(id).flatMap(version ->
+            current.test(version)
+                ? Optional.of(new Versioned<>(version, null))
+                : contractRepository.findOneById(id).map(contractMapper::toDto).map(dto -> new Versioned<>(version, dto))
+        );
+    }
+
     /**
      * Delete the contract by id.
      *
      * @param id the id of the entity.
      */
+    @RetryOnPartitionMove
     public void delete(UUID id) {
         LOG.debug("Request to delete Contract : {}", id);
         contractRepository.deleteById(id);
     }
 
+    private Slice<ContractDTO> findSlice(Specification<Contract> spec, int size) {
+        List<Contract> contracts = contractRepository.findBy(spec, query -> query.sortBy(ContractCursor.SORT).limit(size + 1).all());
+        boolean hasNext = contracts.size() > size;
+        List<ContractDTO> content = contracts.stream().limit(size).map(contractMapper::toDto).toList();
+        return new SliceImpl<>(content, PageRequest.of(0, size, ContractCursor.SORT), hasNext);
+    }
+
     private void validateContractDTO(ContractDTO dto) {
         boolean hasPerson = dto.getPersonId() != null;
         boolean hasCompany = dto.getCompanyId() != null;
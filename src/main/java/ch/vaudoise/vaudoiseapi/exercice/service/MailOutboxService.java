@@ -0,0 +1,199 @@
+package ch.vaudoise.vaudoiseapi.exercice.service;
+
+import ch.vaudoise.vaudoiseapi.exercice.config.ApplicationProperties;
+import ch.vaudoise.vaudoiseapi.exercice.domain.MailOutbox;
+import ch.vaudoise.vaudoiseapi.exercice.repository.MailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service delivering the emails of the {@link MailOutbox}.
+ * <p>
+ * The emails due are claimed by batches of {@code application.mail-outbox.batch-size} and each batch is sent over a
+ * single SMTP connection. A failed email is retried with an exponential backoff, and given up after
+ * {@code application.mail-outbox.max-attempts}. The outbox publishes the {@code mail.outbox.depth} gauge, the
+ * {@code mail.outbox.sent} and {@code mail.outbox.failed} counters, the {@code mail.outbox.batch} timer of the SMTP
+ * sessions and the {@code mail.outbox.delivery} timer from the queuing of an email to its delivery.
+ */
+@Service
+public class MailOutboxService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MailOutboxService.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final MailOutboxRepository mailOutboxRepository;
+
+    private final JavaMailSender javaMailSender;
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final AtomicLong pending = new AtomicLong();
+
+    private final AtomicLong givenUp = new AtomicLong();
+
+    private final Counter sentCounter;
+
+    private final Counter retriedCounter;
+
+    private final Counter givenUpCounter;
+
+    private final Timer batchTimer;
+
+    private final Timer deliveryTimer;
+
+    public MailOutboxService(
+        MailOutboxRepository mailOutboxRepository,
+        JavaMailSender javaMailSender,
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.javaMailSender = javaMailSender;
+        this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
+        Gauge.builder("mail.outbox.depth", pending, AtomicLong::get).tag("state", "pending").register(meterRegistry);
+        Gauge.builder("mail.outbox.depth", givenUp, AtomicLong::get).tag("state", "given-up").register(meterRegistry);
+        this.sentCounter = meterRegistry.counter("mail.outbox.sent");
+        this.retriedCounter = meterRegistry.counter("mail.outbox.failed", "outcome", "retried");
+        this.givenUpCounter = meterRegistry.counter("mail.outbox.failed", "outcome", "given-up");
+        this.batchTimer = meterRegistry.timer("mail.outbox.batch");
+        this.deliveryTimer = meterRegistry.timer("mail.outbox.delivery");
+    }
+
+    /**
+     * Sends the emails due, batch after batch, until there is none left.
+     * <p>
+     * This is scheduled to get fired with a fixed delay, which also delays the first run after startup, see
+     * {@code application.mail-outbox.dispatch-delay}.
+     *
+     * @return the number of emails sent.
+     */
+    @Scheduled(
+        fixedDelayString = "${application.mail-outbox.dispatch-delay:5000}",
+        initialDelayString = "${application.mail-outbox.dispatch-delay:5000}"
+    )
+    public int dispatch() {
+        ApplicationProperties.MailOutbox properties = applicationProperties.getMailOutbox();
+        int sent = 0;
+        List<MailOutbox> batch;
+        do {
+            Instant now = Instant.now();
+            batch = mailOutboxRepository.claimDue(now, now.plus(properties.getLease()), properties.getBatchSize());
+            if (!batch.isEmpty()) {
+                sent += send(batch);
+            }
+        } while (batch.size() == properties.getBatchSize());
+        pending.set(mailOutboxRepository.countByNextAttemptDateIsNotNull());
+        givenUp.set(mailOutboxRepository.countByNextAttemptDateIsNull());
+        return sent;
+    }
+
+    private int send(List<MailOutbox> batch) {
+        Map<MimeMessage, MailOutbox> messages = new LinkedHashMap<>();
+        for (MailOutbox mail : batch) {
+            try {
+                messages.put(createMimeMessage(mail), mail);
+            } catch (MessagingException e) {
+                LOG.warn("Email to '{}' could not be prepared", mail.getRecipient(), e);
+                giveUp(mail, e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return 0;
+        }
+
+        Map<Object, Exception> failedMessages = Map.of();
+        Timer.Sample sample = Timer.start();
+        try {
+            javaMailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            failedMessages = Objects.requireNonNullElse(e.getFailedMessages(), Map.of());
+        } catch (MailException e) {
+            failedMessages = new HashMap<>();
+            for (MimeMessage message : messages.keySet()) {
+                failedMessages.put(message, e);
+            }
+        }
+        sample.stop(batchTimer);
+
+        Instant now = Instant.now();
+        List<UUID> sentIds = new ArrayList<>();
+        for (Map.Entry<MimeMessage, MailOutbox> entry : messages.entrySet()) {
+            MailOutbox mail = entry.getValue();
+            Exception failure = failedMessages.get(entry.getKey());
+            if (failure == null) {
+                sentIds.add(mail.getId());
+                deliveryTimer.record(Duration.between(mail.getCreatedDate(), now));
+                LOG.debug("Sent email to User '{}'", mail.getRecipient());
+            } else if (mail.getAttempts() >= applicationProperties.getMailOutbox().getMaxAttempts()) {
+                LOG.warn(
+                    "Email could not be sent to user '{}', given up after {} attempts",
+                    mail.getRecipient(),
+                    mail.getAttempts(),
+                    failure
+                );
+                giveUp(mail, failure);
+            } else {
+                LOG.warn("Email could not be sent to user '{}', attempt {}", mail.getRecipient(), mail.getAttempts(), failure);
+                mailOutboxRepository.reschedule(mail.getId(), now.plus(backoff(mail.getAttempts())), error(failure));
+                retriedCounter.increment();
+            }
+        }
+        if (!sentIds.isEmpty()) {
+            mailOutboxRepository.deleteAllByIdInBatch(sentIds);
+            sentCounter.increment(sentIds.size());
+        }
+        return sentIds.size();
+    }
+
+    private MimeMessage createMimeMessage(MailOutbox mail) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, mail.getMultipart(), StandardCharsets.UTF_8.name());
+        message.setTo(mail.getRecipient());
+        message.setFrom(jHipsterProperties.getMail().getFrom());
+        message.setSubject(mail.getSubject());
+        message.setText(mail.getContent(), mail.getHtml());
+        return mimeMessage;
+    }
+
+    private void giveUp(MailOutbox mail, Exception failure) {
+        mailOutboxRepository.reschedule(mail.getId(), null, error(failure));
+        givenUpCounter.increment();
+    }
+
+    /**
+     * Delay before the attempt following the given number of failed attempts.
+     */
+    Duration backoff(int attempts) {
+        ApplicationProperties.MailOutbox properties = applicationProperties.getMailOutbox();
+        Duration backoff = properties.getBackoff().multipliedBy(1L << Math.min(attempts - 1, 30));
+        return backoff.compareTo(properties.getMaxBackoff()) < 0 ? backoff : properties.getMaxBackoff();
+    }
+
+    private static String error(Exception failure) {
+        String error = String.valueOf(failure.getMessage());
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
@@ -0,0 +1,83 @@
+package ch.vaudoise.vaudoiseapi.exercice.service;
+
+import java.sql.SQLException;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Retries of the contract writes that race with a concurrent write moving the same row to the other partition of the
+ * contract table.
+ * <p>
+ * Changing {@code cost_total_tracked} moves a contract between {@code contract_active} and {@code contract_ended}.
+ * A statement that waited on the lock of the moved row cannot follow it to its new partition: PostgreSQL fails it with
+ * a serialization failure ("tuple to be locked was already moved to another partition due to concurrent update"),
+ * which is the only serialization failure raised at the read committed isolation level. The write is then run again
+ * in a new transaction, which finds the row in its new partition.
+ */
+public final class PartitionMoveRetry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PartitionMoveRetry.class);
+
+    static final String SERIALIZATION_FAILURE = "40001";
+
+    static final int MAX_ATTEMPTS = 3;
+
+    private PartitionMoveRetry() {}
+
+    /**
+     * Runs a write, running it again while it fails because a concurrent write moved its row to the other partition.
+     * <p>
+     * The write must start its own transaction: within an enclosing transaction, which the failure aborts, it is run
+     * only once.
+     *
+     * @param write the write to run.
+     * @param <T> the type of the result of the write.
+     * @return the result of the write.
+     */
+    public static <T> T retry(Supplier<T> write) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return write.get();
+        }
+        for (int attempt = 1;; attempt++) {
+            try {
+                return write.get();
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_ATTEMPTS || !isPartitionMove(e)) {
+                    throw e;
+                }
+                LOG.debug("Contract moved to another partition by a concurrent write, attempt {} of {}", attempt, MAX_ATTEMPTS);
+            }
+        }
+    }
+
+    /**
+     * Runs a write without result, running it again while it fails because a concurrent write moved its row to the
+     * other partition.
+     *
+     * @param write the write to run.
+     * @see #retry(Supplier)
+     */
+    public static void retry(Runnable write) {
+        retry(() -> {
+            write.run();
+            return null;
+        });
+    }
+
+    /**
+     * Tells whether a failure is caused by a concurrent write that moved the row to the other partition.
+     *
+     * @param failure the failure of a write.
+     * @return {@code true} if the write failed with a serialization failure.
+     */
+    public static boolean isPartitionMove(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && SERIALIZATION_FAILURE.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,46 @@
+package ch.vaudoise.vaudoiseapi.exercice.service;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aspect running the service methods annotated with {@link RetryOnPartitionMove} through {@link PartitionMoveRetry}.
+ * <p>
+ * It is ordered before the transaction advice, which has the lowest precedence, so that it wraps the transaction.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class PartitionMoveRetryAspect {
+
+    /**
+     * Advice that runs an annotated method again while it fails because of a partition move.
+     *
+     * @param joinPoint join point for advice.
+     * @return result.
+     * @throws Throwable the failure of the last attempt.
+     */
+    @Around("@annotation(ch.vaudoise.vaudoiseapi.exercice.service.RetryOnPartitionMove)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        try {
+            return PartitionMoveRetry.retry(() -> proceed(joinPoint));
+        } catch (UndeclaredThrowableException e) {
+            throw e.getUndeclaredThrowable();
+        }
+    }
+
+    private static Object proceed(ProceedingJoinPoint joinPoint) {
+        try {
+            return joinPoint.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+}
@@ -1,25 +1,30 @@
 package ch.vaudoise.vaudoiseapi.exercice.service;
 
-import ch.vaudoise.vaudoiseapi.exercice.domain.ClientInfo;
-import ch.vaudoise.vaudoiseapi.exercice.domain.Contract;
 import ch.vaudoise.vaudoiseapi.exercice.domain.Person;
+import ch.vaudoise.vaudoiseapi.exercice.domain.Person_;
 import ch.vaudoise.vaudoiseapi.exercice.repository.ClientInfoRepository;
 import ch.vaudoise.vaudoiseapi.exercice.repository.ContractRepository;
 import ch.vaudoise.vaudoiseapi.exercice.repository.PersonRepository;
+import ch.vaudoise.vaudoiseapi.exercice.repository.RowVersion;
+import ch.vaudoise.vaudoiseapi.exercice.repository.RowVersionRepository;
+import ch.vaudoise.vaudoiseapi.exercice.repository.TableStatisticsRepository;
+import ch.vaudoise.vaudoiseapi.exercice.service.dto.DeactivationResultDTO;
 import ch.vaudoise.vaudoiseapi.exercice.service.dto.PersonDTO;
 import ch.vaudoise.vaudoiseapi.exercice.service.dto.PersonUpdateDTO;
 import ch.vaudoise.vaudoiseapi.exercice.service.mapper.PersonMapper;
 import ch.vaudoise.vaudoiseapi.exercice.service.mapper.PersonUpdateMapper;
 import jakarta.persistence.EntityNotFoundException;
 import java.time.Instant;
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Predicate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -41,18 +46,30 @@ public class PersonService {
 
     private final ClientInfoRepository clientInfoRepository;
 
+    private final ClientInfoService clientInfoService;
+
+    private final TableStatisticsRepository tableStatisticsRepository;
+
+    private final RowVersionRepository rowVersionRepository;
+
     public PersonService(
         PersonRepository personRepository,
         PersonMapper personMapper,
         PersonUpdateMapper personUpdateMapper,
         ContractRepository contractRepository,
-        ClientInfoRepository clientInfoRepository
+        ClientInfoRepository clientInfoRepository,
+        ClientInfoService clientInfoService,
+        TableStatisticsRepository tableStatisticsRepository,
+        RowVersionRepository rowVersionRepository
     ) {
         this.personRepository = personRepository;
         this.personMapper = personMapper;
         this.personUpdateMapper = personUpdateMapper;
         this.contractRepository = contractRepository;
         this.clientInfoRepository = clientInfoRepository;
+        this.clientInfoService = clientInfoService;
+        this.tableStatisticsRepository = tableStatisticsRepository;
+        this.rowVersionRepository = rowVersionRepository;
     }
 
     /**
@@ -91,20 +108,19 @@ public class PersonService {
      * Partially update a person.
      *
      * @param personUpdateDTO the entity to update partially.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if the person does not exist or has no client info to update.
      */
     public Optional<PersonDTO> partialUpdate(PersonUpdateDTO personUpdateDTO) {
         LOG.debug("Request to partially update Person : {}", personUpdateDTO);
 
-        return personRepository
-            .findById(personUpdateDTO.getId())
-            .map(existingPerson -> {
-                personUpdateMapper.partialUpdate(existingPerson, personUpdateDTO);
-
-                return existingPerson;
-            })
-            .map(personRepository::save)
-            .map(personMapper::toDto);
+        // The person itself has nothing to update, only its client info is written, keyed through the person
+        if (
+            personUpdateDTO.getClientInfo() != null &&
+            clientInfoService.partialUpdate(Person_.clientInfo, personUpdateDTO.getId(), personUpdateDTO.getClientInfo()).isEmpty()
+        ) {
+            return Optional.empty();
+        }
+        return personRepository.findOneWithClientInfoById(personUpdateDTO.getId()).map(personMapper::toDto);
     }
 
     /**
@@ -116,7 +132,29 @@ public class PersonService {
     @Transactional(readOnly = true)
     public Page<PersonDTO> findAll(Pageable pageable) {
         LOG.debug("Request to get all People");
-        return personRepository.findAll(pageable).map(personMapper::toDto);
+        return personRepository.findAllViews(pageable).map(personMapper::toDto);
+    }
+
+    /**
+     * Get a page of the people, without counting them.
+     *
+     * @param pageable the pagination information.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<PersonDTO> findAllSlice(Pageable pageable) {
+        LOG.debug("Request to get a slice of People");
+        return personRepository.findViewSlice(pageable).map(personMapper::toDto);
+    }
+
+    /**
+     * Estimate the number of people from the table statistics, without counting them.
+     *
+     * @return the estimated number of entities.
+     */
+    @Transactional(readOnly = true)
+    public long estimateCount() {
+        return tableStatisticsRepository.estimateRowCount(Person.class);
     }
 
     /**
@@ -128,36 +166,49 @@ public class PersonService {
     @Transactional(readOnly = true)
     public Optional<PersonDTO> findOne(UUID id) {
         LOG.debug("Request to get Person : {}", id);
-        return personRepository.findById(id).map(personMapper::toDto);
+        return personRepository.findOneWithClientInfoById(id).map(personMapper::toDto);
+    }
+
+    /**
+     * Get one person by id with its version, both read from the same snapshot so that the version describes exactly
+     * the returned person.
+     *
+     * @param id the id of the entity.
+     * @param current tells whether the client copy of a version is current; the entity is then not loaded.
+     * @return the version with the entity, without it when the client copy is current, or empty if the entity does not exist.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public Optional<Versioned<PersonDTO>> findOneIfModified(UUID id, Predicate<RowVersion> current) {
+        LOG.debug("Request to get Person if modified : {}", id);
+        return rowVersionRepository.findPersonVersion(id).flatMap(version ->
+            current.test(version)
+                ? Optional.of(new Versioned<>(version, null))
+                : personRepository.findOneWithClientInfoById(id).map(personMapper::toDto).map(dto -> new Versioned<>(version, dto))
+        );
     }
 
     /**
      * Deactivates a person and its associated entities.
      *
-     * This method performs the following operations:
-     * 1. Deactivates all contracts associated with the person by setting their end date to current time
+     * This method performs the following operations, each as a single set-based statement:
+     * 1. Deactivates all active contracts associated with the person by setting their end date to current time,
+     *    contracts that have already ended keep their end date
      * 2. Deactivates the person's client information by setting active status to false
      *
      * @param id The UUID of the person to be deactivated
+     * @return the number of contracts and client infos deactivated
      * @throws RuntimeException if any database operation fails
      */
-    public void delete(UUID id) {
+    @RetryOnPartitionMove
+    public DeactivationResultDTO delete(UUID id) {
         LOG.debug("Request to delete Person : {}", id);
 
         Instant now = Instant.now();
 
-        // Deactivate contracts
-        List<Contract> contracts = contractRepository.findByPersonId(id);
-        contracts.forEach(contract -> contract.setEndDate(now));
-        contractRepository.saveAll(contracts);
+        int contractCount = contractRepository.deactivateByPersonId(id, now);
+        int clientInfoCount = clientInfoRepository.deactivateByPersonId(id, now);
 
-        // Deactivate client info
-        personRepository
-            .findById(id)
-            .ifPresent(person -> {
-                ClientInfo clientInfo = person.getClientInfo();
-                clientInfo.setActive(false);
-                clientInfoRepository.save(clientInfo);
-            });
+        LOG.debug("Deactivated {} contract(s) and {} client info(s) of Person : {}", contractCount, clientInfoCount, id);
+        return new DeactivationResultDTO(contractCount, clientInfoCount);
     }
 }
@@ -0,0 +1,18 @@
+package ch.vaudoise.vaudoiseapi.exercice.service;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a transactional service write of contracts that is run again when it races with a concurrent write moving
+ * one of its contracts to the other partition of the contract table, see {@link PartitionMoveRetry}.
+ * <p>
+ * The retry wraps the transaction of the method, so that every attempt runs in a new transaction. Called within an
+ * enclosing transaction, the method is run only once.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD })
+public @interface RetryOnPartitionMove {
+}
@@ -1,5 +1,6 @@
 package ch.vaudoise.vaudoiseapi.exercice.service;
 
+import ch.vaudoise.vaudoiseapi.exercice.config.ApplicationProperties;
 import ch.vaudoise.vaudoiseapi.exercice.config.Constants;
 import ch.vaudoise.vaudoiseapi.exercice.domain.Authority;
 import ch.vaudoise.vaudoiseapi.exercice.domain.User;
@@ -7,23 +8,33 @@ import ch.vaudoise.vaudoiseapi.exercice.repository.AuthorityRepository;
 import ch.vaudoise.vaudoiseapi.exercice.repository.PersistentTokenRepository;
 import ch.vaudoise.vaudoiseapi.exercice.repository.UserRepository;
 import ch.vaudoise.vaudoiseapi.exercice.security.AuthoritiesConstants;
+import ch.vaudoise.vaudoiseapi.exercice.security.DomainUserDetailsService;
 import ch.vaudoise.vaudoiseapi.exercice.security.SecurityUtils;
 import ch.vaudoise.vaudoiseapi.exercice.service.dto.AdminUserDTO;
 import ch.vaudoise.vaudoiseapi.exercice.service.dto.UserDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import tech.jhipster.security.RandomUtil;
 
 /**
@@ -45,18 +56,30 @@ public class UserService {
 
     private final CacheManager cacheManager;
 
+    private final ApplicationProperties applicationProperties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final MailService mailService;
+
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
         PersistentTokenRepository persistentTokenRepository,
         AuthorityRepository authorityRepository,
-        CacheManager cacheManager
+        CacheManager cacheManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry,
+        MailService mailService
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.persistentTokenRepository = persistentTokenRepository;
         this.authorityRepository = authorityRepository;
         this.cacheManager = cacheManager;
+        this.applicationProperties = applicationProperties;
+        this.meterRegistry = meterRegistry;
+        this.mailService = mailService;
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -95,6 +118,7 @@ public class UserService {
                 user.setResetKey(RandomUtil.generateResetKey());
                 user.setResetDate(Instant.now());
                 this.clearUserCaches(user);
+                mailService.sendPasswordResetMail(user);
                 return user;
             });
     }
@@ -137,6 +161,7 @@ public class UserService {
         newUser.setAuthorities(authorities);
         userRepository.save(newUser);
         this.clearUserCaches(newUser);
+        mailService.sendActivationEmail(newUser);
         LOG.debug("Created Information for User: {}", newUser);
         return newUser;
     }
@@ -182,6 +207,7 @@ public class UserService {
         }
         userRepository.save(user);
         this.clearUserCaches(user);
+        mailService.sendCreationEmail(user);
         LOG.debug("Created Information for User: {}", user);
         return user;
     }
@@ -247,6 +273,7 @@ public class UserService {
         SecurityUtils.getCurrentUserLogin()
             .flatMap(userRepository::findOneByLogin)
             .ifPresent(user -> {
+                this.clearUserCaches(user);
                 user.setFirstName(firstName);
                 user.setLastName(lastName);
                 if (email != null) {
@@ -300,35 +327,56 @@ public class UserService {
      * Persistent Token are used for providing automatic authentication, they should be automatically deleted after
      * 30 days.
      * <p>
+     * The tokens are deleted by batches of {@code application.user-purge.batch-size}, each in its own short
+     * transaction when the job runs outside of one.
+     * <p>
      * This is scheduled to get fired every day, at midnight.
+     *
+     * @return the number of tokens deleted.
      */
     @Scheduled(cron = "0 0 0 * * ?")
-    public void removeOldPersistentTokens() {
-        LocalDate now = LocalDate.now();
-        persistentTokenRepository
-            .findByTokenDateBefore(now.minusMonths(1))
-            .forEach(token -> {
-                LOG.debug("Deleting token {}", token.getSeries());
-                User user = token.getUser();
-                user.getPersistentTokens().remove(token);
-                persistentTokenRepository.delete(token);
-            });
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public long removeOldPersistentTokens() {
+        LocalDate tokenDateBefore = LocalDate.now().minusMonths(1);
+        int batchSize = applicationProperties.getUserPurge().getBatchSize();
+        long deleted = purgeByBatches("persistent-tokens", () ->
+            persistentTokenRepository.deleteByTokenDateBefore(tokenDateBefore, batchSize)
+        );
+        LOG.debug("Deleted {} persistent token(s) dated before {}", deleted, tokenDateBefore);
+        return deleted;
     }
 
     /**
      * Not activated users should be automatically deleted after 3 days.
      * <p>
+     * The users are deleted by batches of {@code application.user-purge.batch-size}, each in its own short
+     * transaction when the job runs outside of one, and their cache entries are evicted once per batch.
+     * <p>
      * This is scheduled to get fired every day, at 01:00 (am).
+     *
+     * @return the number of users deleted.
      */
     @Scheduled(cron = "0 0 1 * * ?")
-    public void removeNotActivatedUsers() {
-        userRepository
-            .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant.now().minus(3, ChronoUnit.DAYS))
-            .forEach(user -> {
-                LOG.debug("Deleting not activated user {}", user.getLogin());
-                userRepository.delete(user);
-                this.clearUserCaches(user);
-            });
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public long removeNotActivatedUsers() {
+        Instant createdBefore = Instant.now().minus(3, ChronoUnit.DAYS);
+        int batchSize = applicationProperties.getUserPurge().getBatchSize();
+        long deleted = purgeByBatches("not-activated-users", () -> {
+            List<UserRepository.PurgedUser> users = userRepository.deleteNotActivatedCreatedBefore(createdBefore, batchSize);
+            Set<String> logins = users.stream().map(UserRepository.PurgedUser::getLogin).collect(Collectors.toSet());
+            Set<String> emails = users
+                .stream()
+                .map(UserRepository.PurgedUser::getEmail)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+            evictAll(UserRepository.USERS_BY_LOGIN_CACHE, logins);
+            evictAll(UserRepository.USERS_BY_EMAIL_CACHE, emails);
+            evictAll(DomainUserDetailsService.USER_DETAILS_CACHE, logins);
+            evictAll(DomainUserDetailsService.USER_DETAILS_CACHE, emails);
+            return users.size();
+        });
+        LOG.debug("Deleted {} not activated user(s) created before {}", deleted, createdBefore);
+        return deleted;
     }
 
     /**
@@ -340,10 +388,82 @@ public class UserService {
         return authorityRepository.findAll().stream().map(Authority::getName).toList();
     }
 
+    /**
+     * Runs batches of a purge until one deletes nothing, pausing between them to keep under
+     * {@code application.user-purge.max-rows-per-second}. The progress is published as the {@code user.purge.deleted}
+     * counter and the {@code user.purge.batch} timer, tagged with the job.
+     */
+    private long purgeByBatches(String job, IntSupplier batch) {
+        Counter deletedCounter = meterRegistry.counter("user.purge.deleted", "job", job);
+        Timer batchTimer = meterRegistry.timer("user.purge.batch", "job", job);
+        int maxRowsPerSecond = applicationProperties.getUserPurge().getMaxRowsPerSecond();
+
+        long deleted = 0;
+        int batchDeleted;
+        do {
+            long start = System.nanoTime();
+            batchDeleted = Objects.requireNonNull(batchTimer.record(batch::getAsInt));
+            deleted += batchDeleted;
+            deletedCounter.increment(batchDeleted);
+            if (batchDeleted > 0 && maxRowsPerSecond > 0) {
+                long pause = TimeUnit.SECONDS.toNanos(batchDeleted) / maxRowsPerSecond - (System.nanoTime() - start);
+                if (pause > 0) {
+                    try {
+                        TimeUnit.NANOSECONDS.sleep(pause);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        LOG.warn("Purge of the {} interrupted after {} row(s)", job, deleted);
+                        break;
+                    }
+                }
+            }
+        } while (batchDeleted > 0);
+        return deleted;
+    }
+
+    /**
+     * Evicts many entries of a cache at once, through a single bulk removal on the JCache regions.
+     */
+    @SuppressWarnings("unchecked")
+    private void evictAll(String cacheName, Set<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(cacheName));
+        if (cache.getNativeCache() instanceof javax.cache.Cache<?, ?> jCache) {
+            ((javax.cache.Cache<Object, Object>) jCache).removeAll(keys);
+        } else {
+            keys.forEach(cache::evictIfPresent);
+        }
+    }
+
+    /**
+     * Evicts the cache entries of a user, and evicts them again once the transaction commits: an authentication
+     * loading the user before the commit would otherwise cache its previous password or authorities.
+     */
     private void clearUserCaches(User user) {
-        Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evictIfPresent(user.getLogin());
-        if (user.getEmail() != null) {
-            Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evictIfPresent(user.getEmail());
+        String login = user.getLogin();
+        String email = user.getEmail();
+        evictUser(login, email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        evictUser(login, email);
+                    }
+                }
+            );
+        }
+    }
+
+    private void evictUser(String login, String email) {
+        Cache userDetailsCache = Objects.requireNonNull(cacheManager.getCache(DomainUserDetailsService.USER_DETAILS_CACHE));
+        Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evictIfPresent(login);
+        userDetailsCache.evictIfPresent(login);
+        if (email != null) {
+            Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evictIfPresent(email);
+            userDetailsCache.evictIfPresent(email);
         }
     }
 }
@@ -0,0 +1,12 @@
+package ch.vaudoise.vaudoiseapi.exercice.service;
+
+import ch.vaudoise.vaudoiseapi.exercice.repository.RowVersion;
+
+/**
+ * A resource with the version of the rows it was read from, both read from the same snapshot.
+ *
+ * @param version the version of the rows.
+ * @param body the resource, or {@code null} when it was not loaded because the client copy is current.
+ * @param <T> type of the resource.
+ */
+public record Versioned<T>(RowVersion version, T body) {}
@@ -0,0 +1,24 @@
+package ch.vaudoise.vaudoiseapi.exercice.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A DTO for the {@link ch.vaudoise.vaudoiseapi.exercice.domain.ContractArchive} entity.
+ *
+ * @param archiveDate the instant the contract was moved to the archive.
+ */
+public record ContractArchiveDTO(
+    UUID id,
+    Instant creationDate,
+    Instant updateDate,
+    Instant startDate,
+    Instant endDate,
+    BigDecimal costAmount,
+    UUID personId,
+    UUID companyId,
+    Instant archiveDate
+)
+    implements Serializable {}
@@ -0,0 +1,26 @@
+package ch.vaudoise.vaudoiseapi.exercice.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Active contract cost totals of several owners, keyed by owner id.
+ * <p>
+ * Every requested owner is present, with a zero total if it has no active contract.
+ *
+ * @param companies the totals of the requested companies.
+ * @param persons   the totals of the requested persons.
+ */
+public record CostTotalsDTO(Map<UUID, CostTotal> companies, Map<UUID, CostTotal> persons) implements Serializable {
+    /**
+     * Active contract cost total of one owner.
+     *
+     * @param activeCostAmountTotal the sum of the cost amounts of the owner's active contracts.
+     * @param activeContractCount   the number of active contracts of the owner.
+     */
+    public record CostTotal(BigDecimal activeCostAmountTotal, long activeContractCount) implements Serializable {
+        public static final CostTotal NONE = new CostTotal(BigDecimal.ZERO, 0);
+    }
+}
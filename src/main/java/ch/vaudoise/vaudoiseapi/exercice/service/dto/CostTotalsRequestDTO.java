@@ -0,0 +1,15 @@
+package ch.vaudoise.vaudoiseapi.exercice.service.dto;
+
+import jakarta.validation.constraints.Size;
+import java.io.Serializable;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Owners whose active contract cost totals are requested at once.
+ *
+ * @param companyIds the ids of the companies, may be {@code null} or empty.
+ * @param personIds  the ids of the persons, may be {@code null} or empty.
+ */
+public record CostTotalsRequestDTO(@Size(max = 10000) Set<UUID> companyIds, @Size(max = 10000) Set<UUID> personIds)
+    implements Serializable {}
@@ -0,0 +1,12 @@
+package ch.vaudoise.vaudoiseapi.exercice.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * Number of rows touched by the deactivation of a {@link ch.vaudoise.vaudoiseapi.exercice.domain.Person}
+ * or a {@link ch.vaudoise.vaudoiseapi.exercice.domain.Company}.
+ *
+ * @param contractCount   the number of contracts whose end date was set.
+ * @param clientInfoCount the number of client infos marked inactive.
+ */
+public record DeactivationResultDTO(int contractCount, int clientInfoCount) implements Serializable {}
@@ -2,6 +2,8 @@ package ch.vaudoise.vaudoiseapi.exercice.service.mapper;
 
 import ch.vaudoise.vaudoiseapi.exercice.domain.ClientInfo;
 import ch.vaudoise.vaudoiseapi.exercice.domain.Company;
+import ch.vaudoise.vaudoiseapi.exercice.repository.ClientInfoView;
+import ch.vaudoise.vaudoiseapi.exercice.repository.CompanyView;
 import ch.vaudoise.vaudoiseapi.exercice.service.dto.ClientInfoDTO;
 import ch.vaudoise.vaudoiseapi.exercice.service.dto.CompanyDTO;
 import java.util.Objects;
@@ -16,9 +18,13 @@ public interface CompanyMapper extends EntityMapper<CompanyDTO, Company> {
     @Mapping(target = "clientInfo", source = "clientInfo", qualifiedByName = "clientInfoFull")
     CompanyDTO toDto(Company s);
 
+    CompanyDTO toDto(CompanyView s);
+
     @Named("clientInfoFull")
     ClientInfoDTO toDtoClientInfoId(ClientInfo clientInfo);
 
+    ClientInfoDTO toDtoClientInfoView(ClientInfoView clientInfo);
+
     default String map(UUID value) {
         return Objects.toString(value, null);
     }
@@ -0,0 +1,13 @@
+package ch.vaudoise.vaudoiseapi.exercice.service.mapper;
+
+import ch.vaudoise.vaudoiseapi.exercice.domain.ContractArchive;
+import ch.vaudoise.vaudoiseapi.exercice.service.dto.ContractArchiveDTO;
+import org.mapstruct.*;
+
+/**
+ * Mapper for the entity {@link ContractArchive} and its DTO {@link ContractArchiveDTO}. Archived contracts are read-only.
+ */
+@Mapper(componentModel = "spring")
+public interface ContractArchiveMapper {
+    ContractArchiveDTO toDto(ContractArchive s);
+}
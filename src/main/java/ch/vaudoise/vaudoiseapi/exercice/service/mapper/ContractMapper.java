@@ -3,6 +3,7 @@ package ch.vaudoise.vaudoiseapi.exercice.service.mapper;
 import ch.vaudoise.vaudoiseapi.exercice.domain.Company;
 import ch.vaudoise.vaudoiseapi.exercice.domain.Contract;
 import ch.vaudoise.vaudoiseapi.exercice.domain.Person;
+import ch.vaudoise.vaudoiseapi.exercice.repository.ContractView;
 import ch.vaudoise.vaudoiseapi.exercice.service.dto.ContractDTO;
 import java.util.Objects;
 import java.util.UUID;
@@ -19,8 +20,18 @@ public interface ContractMapper extends EntityMapper<ContractDTO, Contract> {
 
     @Mapping(target = "person", source = "personId")
     @Mapping(target = "company", source = "companyId")
+    @Mapping(target = "costTotalTracked", ignore = true)
     Contract toEntity(ContractDTO dto);
 
+    @Override
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "costTotalTracked", ignore = true)
+    void partialUpdate(@MappingTarget Contract entity, ContractDTO dto);
+
+    ContractDTO toDto(ContractView s);
+
+    @Mapping(target = "costTotalTracked", ignore = true)
     Contract updateContractFromDto(ContractDTO dto, @MappingTarget Contract entity);
 
     default String map(UUID value) {
@@ -2,6 +2,7 @@ package ch.vaudoise.vaudoiseapi.exercice.service.mapper;
 
 import ch.vaudoise.vaudoiseapi.exercice.domain.ClientInfo;
 import ch.vaudoise.vaudoiseapi.exercice.domain.Person;
+import ch.vaudoise.vaudoiseapi.exercice.repository.PersonView;
 import ch.vaudoise.vaudoiseapi.exercice.service.dto.ClientInfoDTO;
 import ch.vaudoise.vaudoiseapi.exercice.service.dto.PersonDTO;
 import java.util.Objects;
@@ -16,6 +17,8 @@ public interface PersonMapper extends EntityMapper<PersonDTO, Person> {
     @Mapping(target = "clientInfo", source = "clientInfo", qualifiedByName = "clientInfoFull")
     PersonDTO toDto(Person s);
 
+    PersonDTO toDto(PersonView s);
+
     @Named("clientInfoFull")
     ClientInfoDTO toDtoClientInfoId(ClientInfo clientInfo);
 
@@ -0,0 +1,58 @@
+package ch.vaudoise.vaudoiseapi.exercice.service.specification;
+
+import ch.vaudoise.vaudoiseapi.exercice.service.dto.ContractDTO;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Keyset position of a contract in the {@code (updateDate, id)} ordering used by cursor pagination.
+ * <p>
+ * The position is handed to clients as an opaque URL-safe token, see {@link #encode()} and {@link #decode(String)}.
+ *
+ * @param updateDate the update date of the last contract of the previous page.
+ * @param id         the id of the last contract of the previous page.
+ */
+public record ContractCursor(Instant updateDate, UUID id) {
+    /**
+     * The ordering the cursor positions refer to.
+     */
+    public static final Sort SORT = Sort.by(Sort.Order.asc("updateDate"), Sort.Order.asc("id"));
+
+    private static final char SEPARATOR = '|';
+
+    public static ContractCursor of(ContractDTO contractDTO) {
+        return new ContractCursor(contractDTO.getUpdateDate(), contractDTO.getId());
+    }
+
+    public String encode() {
+        String raw = updateDate.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token the token, {@code null} or blank for the first page.
+     * @return the cursor, or {@code null} for the first page.
+     * @throws IllegalArgumentException if the token is malformed.
+     */
+    public static ContractCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int separatorIndex = raw.indexOf(SEPARATOR);
+        if (separatorIndex < 0) {
+            throw new IllegalArgumentException("Malformed contract cursor");
+        }
+        try {
+            return new ContractCursor(Instant.parse(raw.substring(0, separatorIndex)), UUID.fromString(raw.substring(separatorIndex + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed contract cursor", e);
+        }
+    }
+}
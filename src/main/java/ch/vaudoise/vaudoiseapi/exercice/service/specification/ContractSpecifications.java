@@ -18,9 +18,19 @@ public class ContractSpecifications {
         return (root, query, cb) -> cb.equal(root.get(Contract_.PERSON).get(Person_.ID), personId);
     }
 
+    /**
+     * Active contracts: without end date or ending in the future.
+     * <p>
+     * Every active contract is tracked in the cost totals: the database sets the flag on every write of an active
+     * contract, and only the ended contracts are untracked. The redundant {@code costTotalTracked} predicate does not
+     * change the result; it lets Postgres prune the {@code contract_ended} partition.
+     */
     public static Specification<Contract> isActive() {
         return (root, query, cb) ->
-            cb.or(cb.isNull(root.get(Contract_.END_DATE)), cb.greaterThan(root.get(Contract_.END_DATE), Instant.now()));
+            cb.and(
+                cb.isTrue(root.get(Contract_.COST_TOTAL_TRACKED)),
+                cb.or(cb.isNull(root.get(Contract_.END_DATE)), cb.greaterThan(root.get(Contract_.END_DATE), Instant.now()))
+            );
     }
 
     public static Specification<Contract> updatedAfter(Instant fromDate) {
@@ -34,4 +44,16 @@ public class ContractSpecifications {
     public static Specification<Contract> updatedBetween(Instant fromDate, Instant toDate) {
         return (root, query, cb) -> cb.between(root.get(Contract_.UPDATE_DATE), fromDate, toDate);
     }
+
+    /**
+     * Seek predicate selecting the contracts positioned after {@code (updateDate, id)} in the
+     * {@link ContractCursor#SORT} ordering.
+     */
+    public static Specification<Contract> after(Instant updateDate, UUID id) {
+        return (root, query, cb) ->
+            cb.or(
+                cb.greaterThan(root.get(Contract_.UPDATE_DATE), updateDate),
+                cb.and(cb.equal(root.get(Contract_.UPDATE_DATE), updateDate), cb.greaterThan(root.get(Contract_.ID), id))
+            );
+    }
 }
@@ -56,6 +56,19 @@ public class ContractSpecificationsBuilder {
         return this;
     }
 
+    /**
+     * Restricts the specification to the contracts positioned after the given cursor.
+     *
+     * @param cursor the position of the last contract of the previous page, or {@code null} for the first page
+     * @return this {@link ContractSpecificationsBuilder} instance with the applied filter
+     */
+    public ContractSpecificationsBuilder after(ContractCursor cursor) {
+        if (cursor != null) {
+            spec = spec.and(ContractSpecifications.after(cursor.updateDate(), cursor.id()));
+        }
+        return this;
+    }
+
     public Specification<Contract> build() {
         return spec;
     }
@@ -5,7 +5,6 @@ import ch.vaudoise.vaudoiseapi.exercice.domain.User;
 import ch.vaudoise.vaudoiseapi.exercice.repository.PersistentTokenRepository;
 import ch.vaudoise.vaudoiseapi.exercice.repository.UserRepository;
 import ch.vaudoise.vaudoiseapi.exercice.security.SecurityUtils;
-import ch.vaudoise.vaudoiseapi.exercice.service.MailService;
 import ch.vaudoise.vaudoiseapi.exercice.service.UserService;
 import ch.vaudoise.vaudoiseapi.exercice.service.dto.AdminUserDTO;
 import ch.vaudoise.vaudoiseapi.exercice.service.dto.PasswordChangeDTO;
@@ -44,19 +43,11 @@ public class AccountResource {
 
     private final UserService userService;
 
-    private final MailService mailService;
-
     private final PersistentTokenRepository persistentTokenRepository;
 
-    public AccountResource(
-        UserRepository userRepository,
-        UserService userService,
-        MailService mailService,
-        PersistentTokenRepository persistentTokenRepository
-    ) {
+    public AccountResource(UserRepository userRepository, UserService userService, PersistentTokenRepository persistentTokenRepository) {
         this.userRepository = userRepository;
         this.userService = userService;
-        this.mailService = mailService;
         this.persistentTokenRepository = persistentTokenRepository;
     }
 
@@ -74,8 +65,7 @@ public class AccountResource {
         if (isPasswordLengthInvalid(managedUserVM.getPassword())) {
             throw new InvalidPasswordException();
         }
-        User user = userService.registerUser(managedUserVM, managedUserVM.getPassword());
-        mailService.sendActivationEmail(user);
+        userService.registerUser(managedUserVM, managedUserVM.getPassword());
     }
 
     /**
@@ -215,10 +205,7 @@ public class AccountResource {
      */
     @PostMapping(path = "/account/reset-password/init")
     public void requestPasswordReset(@RequestBody String mail) {
-        Optional<User> user = userService.requestPasswordReset(mail);
-        if (user.isPresent()) {
-            mailService.sendPasswordResetMail(user.orElseThrow());
-        } else {
+        if (userService.requestPasswordReset(mail).isEmpty()) {
             // Pretend the request has been successful to prevent checking which emails really exist
             // but log that an invalid attempt has been made
             LOG.warn("Password reset requested for non existing mail");
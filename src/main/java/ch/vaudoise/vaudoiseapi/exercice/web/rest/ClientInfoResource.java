@@ -4,26 +4,31 @@ import ch.vaudoise.vaudoiseapi.exercice.repository.ClientInfoRepository;
 import ch.vaudoise.vaudoiseapi.exercice.service.ClientInfoService;
 import ch.vaudoise.vaudoiseapi.exercice.service.dto.ClientInfoDTO;
 import ch.vaudoise.vaudoiseapi.exercice.web.rest.errors.BadRequestAlertException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.PaginationUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
 /**
@@ -44,9 +49,15 @@ public class ClientInfoResource {
 
     private final ClientInfoRepository clientInfoRepository;
 
-    public ClientInfoResource(ClientInfoService clientInfoService, ClientInfoRepository clientInfoRepository) {
+    private final ObjectWriter clientInfoWriter;
+
+    public ClientInfoResource(ClientInfoService clientInfoService, ClientInfoRepository clientInfoRepository, ObjectMapper objectMapper) {
         this.clientInfoService = clientInfoService;
         this.clientInfoRepository = clientInfoRepository;
+        this.clientInfoWriter = objectMapper
+            .writerFor(ClientInfoDTO.class)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
     }
 
     /**
@@ -133,39 +144,102 @@ public class ClientInfoResource {
      *
      * @param pageable the pagination information.
      * @param filter the filter of the request.
+     * @param count the count mode, see {@link SlicePaginationUtil}; the filtered listings have no estimate.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of clientInfos in body.
      */
     @GetMapping
     public ResponseEntity<List<ClientInfoDTO>> getAllClientInfos(
         @ParameterObject Pageable pageable,
-        @RequestParam(name = "filter", required = false) String filter
+        @RequestParam(name = "filter", required = false) String filter,
+        @RequestParam(name = SlicePaginationUtil.COUNT_PARAM, required = false) String count
     ) {
         if ("person-is-null".equals(filter)) {
-            LOG.debug("REST request to get all ClientInfos where person is null");
-            return new ResponseEntity<>(clientInfoService.findAllWherePersonIsNull(), HttpStatus.OK);
+            LOG.debug("REST request to get a page of ClientInfos where person is null");
+            return SlicePaginationUtil.listResponse(
+                count,
+                pageable,
+                clientInfoService::findAllWherePersonIsNull,
+                clientInfoService::findSliceWherePersonIsNull,
+                null,
+                ENTITY_NAME
+            );
         }
 
         if ("company-is-null".equals(filter)) {
-            LOG.debug("REST request to get all ClientInfos where company is null");
-            return new ResponseEntity<>(clientInfoService.findAllWhereCompanyIsNull(), HttpStatus.OK);
+            LOG.debug("REST request to get a page of ClientInfos where company is null");
+            return SlicePaginationUtil.listResponse(
+                count,
+                pageable,
+                clientInfoService::findAllWhereCompanyIsNull,
+                clientInfoService::findSliceWhereCompanyIsNull,
+                null,
+                ENTITY_NAME
+            );
         }
         LOG.debug("REST request to get a page of ClientInfos");
-        Page<ClientInfoDTO> page = clientInfoService.findAll(pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        return SlicePaginationUtil.listResponse(
+            count,
+            pageable,
+            clientInfoService::findAll,
+            clientInfoService::findAllSlice,
+            clientInfoService::estimateCount,
+            ENTITY_NAME
+        );
+    }
+
+    /**
+     * {@code GET  /client-infos/export} : stream all the clientInfos matching the filter as newline-delimited JSON.
+     * <p>
+     * ClientInfos are read through a database cursor and written to the response one line at a time,
+     * so the memory used does not depend on the number of clientInfos exported.
+     * </p>
+     *
+     * @param filter the filter of the request, either {@code person-is-null} or {@code company-is-null}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the clientInfos in an {@code application/x-ndjson} body,
+     * or with status {@code 400 (Bad Request)} if the filter is not supported.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportClientInfos(@RequestParam(name = "filter") String filter) {
+        ToLongFunction<Consumer<ClientInfoDTO>> export;
+        if ("person-is-null".equals(filter)) {
+            export = clientInfoService::exportWherePersonIsNull;
+        } else if ("company-is-null".equals(filter)) {
+            export = clientInfoService::exportWhereCompanyIsNull;
+        } else {
+            throw new BadRequestAlertException("Unsupported filter", ENTITY_NAME, "filterinvalid");
+        }
+        LOG.debug("REST request to export ClientInfos where {}", filter);
+
+        StreamingResponseBody body = outputStream -> {
+            long count = export.applyAsLong(clientInfoDTO -> {
+                try {
+                    clientInfoWriter.writeValue(outputStream, clientInfoDTO);
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            LOG.debug("Exported {} ClientInfos", count);
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     /**
      * {@code GET  /client-infos/:id} : get the "id" clientInfo.
      *
+     * The response carries the {@code ETag} of the clientInfo, and a request whose {@code If-None-Match} header matches it is
+     * answered without loading the clientInfo.
+     *
      * @param id the id of the clientInfoDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the clientInfoDTO, or with status {@code 404 (Not Found)}.
+     * @param request the current request, carrying the conditional headers.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the clientInfoDTO, or with status
+     * {@code 304 (Not Modified)} if the client copy is current, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ClientInfoDTO> getClientInfo(@PathVariable("id") UUID id) {
+    public ResponseEntity<ClientInfoDTO> getClientInfo(@PathVariable("id") UUID id, WebRequest request) {
         LOG.debug("REST request to get ClientInfo : {}", id);
-        Optional<ClientInfoDTO> clientInfoDTO = clientInfoService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(clientInfoDTO);
+        return ConditionalGetUtil.wrapOrNotModified(request, current -> clientInfoService.findOneIfModified(id, current));
     }
 
     /**
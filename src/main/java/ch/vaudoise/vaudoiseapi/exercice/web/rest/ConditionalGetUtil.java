@@ -0,0 +1,62 @@
+package ch.vaudoise.vaudoiseapi.exercice.web.rest;
+
+import ch.vaudoise.vaudoiseapi.exercice.repository.RowVersion;
+import ch.vaudoise.vaudoiseapi.exercice.service.Versioned;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * Conditional {@code GET} of a single resource: the strong {@code ETag} and the {@code Last-Modified} headers are
+ * derived from the {@link RowVersion} of the resource, and a request whose {@code If-None-Match} or
+ * {@code If-Modified-Since} header matches is answered with {@code 304 Not Modified} before the resource is loaded.
+ */
+final class ConditionalGetUtil {
+
+    private ConditionalGetUtil() {}
+
+    /**
+     * Answers a conditional {@code GET}.
+     * <p>
+     * The version and the resource are read from the same snapshot, so the headers always describe the returned body.
+     *
+     * @param request the current request.
+     * @param resource reads the version of the resource and, unless the given predicate tells that the client copy of
+     *     that version is current, the resource itself; empty when it does not exist.
+     * @param <X> type of the resource.
+     * @return {@code 304} when the client copy is current, the resource otherwise, or {@code 404} when it does not exist.
+     */
+    static <X> ResponseEntity<X> wrapOrNotModified(
+        WebRequest request,
+        Function<Predicate<RowVersion>, Optional<Versioned<X>>> resource
+    ) {
+        Optional<Versioned<X>> versioned = resource.apply(version -> request.checkNotModified(eTagOf(version), lastModifiedOf(version)));
+        if (versioned.isEmpty()) {
+            return ResponseUtil.wrapOrNotFound(Optional.empty());
+        }
+        RowVersion version = versioned.orElseThrow().version();
+        if (versioned.orElseThrow().body() == null) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(eTagOf(version));
+        if (lastModifiedOf(version) >= 0) {
+            headers.setLastModified(lastModifiedOf(version));
+        }
+        return ResponseEntity.ok().headers(headers).body(versioned.orElseThrow().body());
+    }
+
+    private static String eTagOf(RowVersion version) {
+        return "\"" + version.tag() + "\"";
+    }
+
+    private static long lastModifiedOf(RowVersion version) {
+        return Optional.ofNullable(version.lastModified()).map(Instant::toEpochMilli).orElse(-1L);
+    }
+}
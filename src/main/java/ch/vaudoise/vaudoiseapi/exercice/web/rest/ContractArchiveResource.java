@@ -0,0 +1,68 @@
+package ch.vaudoise.vaudoiseapi.exercice.web.rest;
+
+import ch.vaudoise.vaudoiseapi.exercice.service.ContractArchiveService;
+import ch.vaudoise.vaudoiseapi.exercice.service.dto.ContractArchiveDTO;
+import java.util.List;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tech.jhipster.web.util.PaginationUtil;
+
+/**
+ * REST controller for reading {@link ch.vaudoise.vaudoiseapi.exercice.domain.ContractArchive}.
+ */
+@RestController
+@RequestMapping("/api/contract-archives")
+public class ContractArchiveResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ContractArchiveResource.class);
+
+    private final ContractArchiveService contractArchiveService;
+
+    public ContractArchiveResource(ContractArchiveService contractArchiveService) {
+        this.contractArchiveService = contractArchiveService;
+    }
+
+    /**
+     * {@code GET  /contract-archives/company/:companyId} : get the archived contracts of a company.
+     *
+     * @param companyId the id of the company.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of archived contracts in body.
+     */
+    @GetMapping("/company/{companyId}")
+    public ResponseEntity<List<ContractArchiveDTO>> getArchivedContractsByCompanyId(
+        @PathVariable UUID companyId,
+        @ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to get a page of archived Contracts of Company : {}", companyId);
+        Page<ContractArchiveDTO> page = contractArchiveService.findByCompanyId(companyId, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /contract-archives/person/:personId} : get the archived contracts of a person.
+     *
+     * @param personId the id of the person.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of archived contracts in body.
+     */
+    @GetMapping("/person/{personId}")
+    public ResponseEntity<List<ContractArchiveDTO>> getArchivedContractsByPersonId(
+        @PathVariable UUID personId,
+        @ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to get a page of archived Contracts of Person : {}", personId);
+        Page<ContractArchiveDTO> page = contractArchiveService.findByPersonId(personId, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+}
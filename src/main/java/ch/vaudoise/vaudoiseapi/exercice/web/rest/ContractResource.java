@@ -3,9 +3,17 @@ package ch.vaudoise.vaudoiseapi.exercice.web.rest;
 import ch.vaudoise.vaudoiseapi.exercice.repository.ContractRepository;
 import ch.vaudoise.vaudoiseapi.exercice.service.ContractService;
 import ch.vaudoise.vaudoiseapi.exercice.service.dto.ContractDTO;
+import ch.vaudoise.vaudoiseapi.exercice.service.dto.CostTotalsDTO;
+import ch.vaudoise.vaudoiseapi.exercice.service.dto.CostTotalsRequestDTO;
+import ch.vaudoise.vaudoiseapi.exercice.service.specification.ContractCursor;
 import ch.vaudoise.vaudoiseapi.exercice.web.rest.errors.BadRequestAlertException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -19,12 +27,14 @@ import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.PaginationUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
 /**
@@ -38,6 +48,11 @@ public class ContractResource {
 
     private static final String ENTITY_NAME = "contract";
 
+    /**
+     * Response header carrying the cursor of the next page in cursor pagination mode.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -45,9 +60,16 @@ public class ContractResource {
 
     private final ContractRepository contractRepository;
 
-    public ContractResource(ContractService contractService, ContractRepository contractRepository) {
+    private final ObjectWriter contractWriter;
+
+    public ContractResource(ContractService contractService, ContractRepository contractRepository, ObjectMapper objectMapper) {
         this.contractService = contractService;
         this.contractRepository = contractRepository;
+        // Rows are written one after the other to the response stream, which must stay open and is flushed by the container
+        this.contractWriter = objectMapper
+            .writerFor(ContractDTO.class)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
     }
 
     /**
@@ -91,11 +113,11 @@ public class ContractResource {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
-        contractDTO = contractService.update(contractDTO);
+        ContractDTO result = contractService.update(contractDTO);
 
         return ResponseEntity.ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, contractDTO.getId().toString()))
-            .body(contractDTO);
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
+            .body(result);
     }
 
     /**
@@ -131,14 +153,62 @@ public class ContractResource {
      * {@code GET  /contracts} : get all the contracts.
      *
      * @param pageable the pagination information.
+     * @param count the count mode, see {@link SlicePaginationUtil}.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of contracts in body.
      */
     @GetMapping
-    public ResponseEntity<List<ContractDTO>> getAllContracts(@ParameterObject Pageable pageable) {
+    public ResponseEntity<List<ContractDTO>> getAllContracts(
+        @ParameterObject Pageable pageable,
+        @RequestParam(name = SlicePaginationUtil.COUNT_PARAM, required = false) String count
+    ) {
         LOG.debug("REST request to get a page of Contracts");
-        Page<ContractDTO> page = contractService.findAll(pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        return SlicePaginationUtil.listResponse(
+            count,
+            pageable,
+            contractService::findAll,
+            contractService::findAllSlice,
+            contractService::estimateCount,
+            ENTITY_NAME
+        );
+    }
+
+    /**
+     * {@code GET  /contracts/export} : stream all the contracts matching the filters as newline-delimited JSON.
+     * <p>
+     * Contracts are read through a database cursor and written to the response one line at a time,
+     * so the memory used does not depend on the number of contracts exported.
+     * </p>
+     *
+     * @param companyId   the company the contracts belong to, or {@code null} for any owner
+     * @param personId    the person the contracts belong to, or {@code null} for any owner
+     * @param active      whether to export the active contracts only
+     * @param updatedFrom the lower bound of the update date filter (inclusive), or {@code null} for no lower bound
+     * @param updatedTo   the upper bound of the update date filter (inclusive), or {@code null} for no upper bound
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the contracts in an {@code application/x-ndjson} body.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportContracts(
+        @RequestParam(required = false) UUID companyId,
+        @RequestParam(required = false) UUID personId,
+        @RequestParam(defaultValue = "false") boolean active,
+        @RequestParam(required = false) Instant updatedFrom,
+        @RequestParam(required = false) Instant updatedTo
+    ) {
+        LOG.debug("REST request to export Contracts");
+
+        StreamingResponseBody body = outputStream -> {
+            long count = contractService.export(companyId, personId, active, updatedFrom, updatedTo, contractDTO -> {
+                try {
+                    contractWriter.writeValue(outputStream, contractDTO);
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            LOG.debug("Exported {} Contracts", count);
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     /**
@@ -154,10 +224,17 @@ public class ContractResource {
      * The results are paginated internally using the {@link Pageable} parameter, but only the
      * content of the current page is returned in the response body.
      * </p>
+     * <p>
+     * When the {@code after} parameter is present, the endpoint switches to cursor pagination: {@code after} is
+     * the opaque token of the previous page (empty for the first page), contracts are ordered by update date and id,
+     * only the page size of {@code pageable} is used, and the token of the next page is returned in the
+     * {@value #NEXT_CURSOR_HEADER} header when there is one. No count query is run in this mode.
+     * </p>
      *
      * @param companyId   the unique identifier of the company whose active contracts should be retrieved
      * @param updatedFrom the lower bound of the update date filter (inclusive), or {@code null} for no lower bound
      * @param updatedTo   the upper bound of the update date filter (inclusive), or {@code null} for no upper bound
+     * @param after       the cursor of the previous page in cursor pagination mode, empty for the first page
      * @param pageable    pagination information, including page number, size, and sorting options
      * @return a {@link ResponseEntity} containing a list of {@link ContractDTO} representing the active contracts
      *         of the specified company, with HTTP status 200 (OK)
@@ -168,8 +245,20 @@ public class ContractResource {
         @PathVariable UUID companyId,
         @RequestParam(required = false) Instant updatedFrom,
         @RequestParam(required = false) Instant updatedTo,
+        @RequestParam(required = false) String after,
         @ParameterObject Pageable pageable
     ) {
+        if (after != null) {
+            Slice<ContractDTO> slice = contractService.findActiveByCompanyIdAfter(
+                companyId,
+                updatedFrom,
+                updatedTo,
+                decodeCursor(after),
+                pageable.getPageSize()
+            );
+            return cursorResponse(slice);
+        }
+
         Page<ContractDTO> page = contractService.findActiveByCompanyId(companyId, updatedFrom, updatedTo, pageable);
 
         return ResponseEntity.ok().body(page.getContent());
@@ -188,10 +277,17 @@ public class ContractResource {
      * The results are paginated internally using the {@link Pageable} parameter, but only the
      * content of the current page is returned in the response body.
      * </p>
+     * <p>
+     * When the {@code after} parameter is present, the endpoint switches to cursor pagination: {@code after} is
+     * the opaque token of the previous page (empty for the first page), contracts are ordered by update date and id,
+     * only the page size of {@code pageable} is used, and the token of the next page is returned in the
+     * {@value #NEXT_CURSOR_HEADER} header when there is one. No count query is run in this mode.
+     * </p>
      *
      * @param personId    the unique identifier of the person whose active contracts should be retrieved
      * @param updatedFrom the lower bound of the update date filter (inclusive), or {@code null} for no lower bound
      * @param updatedTo   the upper bound of the update date filter (inclusive), or {@code null} for no upper bound
+     * @param after       the cursor of the previous page in cursor pagination mode, empty for the first page
      * @param pageable    pagination information, including page number, size, and sorting options
      * @return a {@link ResponseEntity} containing a list of {@link ContractDTO} representing the active contracts
      *         of the specified person, with HTTP status 200 (OK)
@@ -202,8 +298,20 @@ public class ContractResource {
         @PathVariable UUID personId,
         @RequestParam(required = false) Instant updatedFrom,
         @RequestParam(required = false) Instant updatedTo,
+        @RequestParam(required = false) String after,
         @ParameterObject Pageable pageable
     ) {
+        if (after != null) {
+            Slice<ContractDTO> slice = contractService.findActiveByPersonIdAfter(
+                personId,
+                updatedFrom,
+                updatedTo,
+                decodeCursor(after),
+                pageable.getPageSize()
+            );
+            return cursorResponse(slice);
+        }
+
         Page<ContractDTO> page = contractService.findActiveByPersonId(personId, updatedFrom, updatedTo, pageable);
 
         return ResponseEntity.ok().body(page.getContent());
@@ -223,17 +331,37 @@ public class ContractResource {
         return ResponseEntity.ok().body(costAmountTotal);
     }
 
+    /**
+     * {@code POST  /contracts/active/costAmountTotals} : get the active cost amount totals of several owners at once.
+     * <p>
+     * This is a read; it takes a body because the id lists can be too long for a query string.
+     * </p>
+     *
+     * @param request the ids of the companies and persons.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the totals and active contract counts
+     * keyed by owner id.
+     */
+    @PostMapping("/active/costAmountTotals")
+    public ResponseEntity<CostTotalsDTO> getActiveCostAmountTotals(@Valid @RequestBody CostTotalsRequestDTO request) {
+        LOG.debug("REST request to get the active cost amount totals of several owners");
+        return ResponseEntity.ok().body(contractService.getActiveCostTotals(request));
+    }
+
     /**
      * {@code GET  /contracts/:id} : get the "id" contract.
      *
+     * The response carries the {@code ETag} of the contract, and a request whose {@code If-None-Match} header matches it is
+     * answered without loading the contract.
+     *
      * @param id the id of the contractDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the contractDTO, or with status {@code 404 (Not Found)}.
+     * @param request the current request, carrying the conditional headers.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the contractDTO, or with status
+     * {@code 304 (Not Modified)} if the client copy is current, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ContractDTO> getContract(@PathVariable("id") UUID id) {
+    public ResponseEntity<ContractDTO> getContract(@PathVariable("id") UUID id, WebRequest request) {
         LOG.debug("REST request to get Contract : {}", id);
-        Optional<ContractDTO> contractDTO = contractService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(contractDTO);
+        return ConditionalGetUtil.wrapOrNotModified(request, current -> contractService.findOneIfModified(id, current));
     }
 
     /**
@@ -250,4 +378,20 @@ public class ContractResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    private ContractCursor decodeCursor(String after) {
+        try {
+            return ContractCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+    }
+
+    private ResponseEntity<List<ContractDTO>> cursorResponse(Slice<ContractDTO> slice) {
+        HttpHeaders headers = new HttpHeaders();
+        if (slice.hasNext()) {
+            headers.add(NEXT_CURSOR_HEADER, ContractCursor.of(slice.getContent().get(slice.getNumberOfElements() - 1)).encode());
+        }
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
 }
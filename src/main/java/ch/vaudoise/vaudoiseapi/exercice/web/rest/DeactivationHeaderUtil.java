@@ -0,0 +1,29 @@
+package ch.vaudoise.vaudoiseapi.exercice.web.rest;
+
+import ch.vaudoise.vaudoiseapi.exercice.service.dto.DeactivationResultDTO;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Headers reporting the rows touched by the deactivation of a person or a company, which answers with no body.
+ */
+final class DeactivationHeaderUtil {
+
+    static final String DEACTIVATED_CONTRACTS_HEADER = "X-Deactivated-Contracts";
+
+    static final String DEACTIVATED_CLIENT_INFOS_HEADER = "X-Deactivated-Client-Infos";
+
+    private DeactivationHeaderUtil() {}
+
+    /**
+     * Adds the deactivation counts to the given headers.
+     *
+     * @param headers the headers of the response.
+     * @param result  the result of the deactivation.
+     * @return the given headers.
+     */
+    static HttpHeaders addDeactivationCounts(HttpHeaders headers, DeactivationResultDTO result) {
+        headers.add(DEACTIVATED_CONTRACTS_HEADER, Integer.toString(result.contractCount()));
+        headers.add(DEACTIVATED_CLIENT_INFOS_HEADER, Integer.toString(result.clientInfoCount()));
+        return headers;
+    }
+}
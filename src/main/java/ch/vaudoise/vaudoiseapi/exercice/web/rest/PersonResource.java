@@ -4,6 +4,7 @@ import ch.vaudoise.vaudoiseapi.exercice.repository.PersonRepository;
 import ch.vaudoise.vaudoiseapi.exercice.service.PersonService;
 import ch.vaudoise.vaudoiseapi.exercice.service.dto.PersonDTO;
 import ch.vaudoise.vaudoiseapi.exercice.service.dto.PersonUpdateDTO;
+import ch.vaudoise.vaudoiseapi.exercice.service.dto.DeactivationResultDTO;
 import ch.vaudoise.vaudoiseapi.exercice.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -16,14 +17,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.context.request.WebRequest;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.PaginationUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
 /**
@@ -136,41 +135,54 @@ public class PersonResource {
      * {@code GET  /people} : get all the people.
      *
      * @param pageable the pagination information.
+     * @param count the count mode, see {@link SlicePaginationUtil}.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of people in body.
      */
     @GetMapping
-    public ResponseEntity<List<PersonDTO>> getAllPeople(@ParameterObject Pageable pageable) {
+    public ResponseEntity<List<PersonDTO>> getAllPeople(
+        @ParameterObject Pageable pageable,
+        @RequestParam(name = SlicePaginationUtil.COUNT_PARAM, required = false) String count
+    ) {
         LOG.debug("REST request to get a page of People");
-        Page<PersonDTO> page = personService.findAll(pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        return SlicePaginationUtil.listResponse(
+            count,
+            pageable,
+            personService::findAll,
+            personService::findAllSlice,
+            personService::estimateCount,
+            ENTITY_NAME
+        );
     }
 
     /**
      * {@code GET  /people/:id} : get the "id" person.
      *
+     * The response carries the {@code ETag} of the person, and a request whose {@code If-None-Match} header matches it is
+     * answered without loading the person.
+     *
      * @param id the id of the personDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the personDTO, or with status {@code 404 (Not Found)}.
+     * @param request the current request, carrying the conditional headers.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the personDTO, or with status
+     * {@code 304 (Not Modified)} if the client copy is current, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<PersonDTO> getPerson(@PathVariable("id") UUID id) {
+    public ResponseEntity<PersonDTO> getPerson(@PathVariable("id") UUID id, WebRequest request) {
         LOG.debug("REST request to get Person : {}", id);
-        Optional<PersonDTO> personDTO = personService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(personDTO);
+        return ConditionalGetUtil.wrapOrNotModified(request, current -> personService.findOneIfModified(id, current));
     }
 
     /**
      * {@code DELETE  /people/:id} : delete the "id" person.
      *
      * @param id the id of the personDTO to delete.
-     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}, and the numbers of contracts and client
+     * infos deactivated in the {@code X-Deactivated-Contracts} and {@code X-Deactivated-Client-Infos} headers.
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletePerson(@PathVariable("id") UUID id) {
         LOG.debug("REST request to delete Person : {}", id);
-        personService.delete(id);
-        return ResponseEntity.noContent()
-            .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
-            .build();
+        DeactivationResultDTO result = personService.delete(id);
+        HttpHeaders headers = HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString());
+        return ResponseEntity.noContent().headers(DeactivationHeaderUtil.addDeactivationCounts(headers, result)).build();
     }
 }
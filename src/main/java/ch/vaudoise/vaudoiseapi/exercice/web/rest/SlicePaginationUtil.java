@@ -0,0 +1,122 @@
+package ch.vaudoise.vaudoiseapi.exercice.web.rest;
+
+import ch.vaudoise.vaudoiseapi.exercice.web.rest.errors.BadRequestAlertException;
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+import tech.jhipster.web.util.PaginationUtil;
+
+/**
+ * Pagination of the list endpoints in the count mode chosen by the client with the {@value #COUNT_PARAM} request
+ * parameter:
+ * <ul>
+ *     <li>{@code exact} (default): a {@link Page} with the {@code X-Total-Count} and {@code Link} headers of
+ *     {@link PaginationUtil}, at the cost of a {@code COUNT} query;</li>
+ *     <li>{@code none}: a {@link Slice}, with the {@value #HAS_NEXT_PAGE_HEADER} header and a {@code Link} header
+ *     without the last page;</li>
+ *     <li>{@code estimated}: as {@code none}, plus the {@value #ESTIMATED_TOTAL_COUNT_HEADER} header taken from the
+ *     table statistics. Only unfiltered listings have an estimate.</li>
+ * </ul>
+ */
+final class SlicePaginationUtil {
+
+    static final String COUNT_PARAM = "count";
+
+    static final String HAS_NEXT_PAGE_HEADER = "X-Has-Next-Page";
+
+    static final String ESTIMATED_TOTAL_COUNT_HEADER = "X-Estimated-Total-Count";
+
+    private static final String HEADER_LINK_FORMAT = "<{0}>; rel=\"{1}\"";
+
+    enum CountMode {
+        EXACT,
+        NONE,
+        ESTIMATED;
+
+        static CountMode of(String value, String entityName) {
+            if (value == null) {
+                return EXACT;
+            }
+            for (CountMode mode : values()) {
+                if (mode.name().equalsIgnoreCase(value)) {
+                    return mode;
+                }
+            }
+            throw new BadRequestAlertException("Unsupported count mode", entityName, "countinvalid");
+        }
+    }
+
+    private SlicePaginationUtil() {}
+
+    /**
+     * Lists a page of entities in the requested count mode.
+     *
+     * @param count      the value of the {@value #COUNT_PARAM} request parameter, or {@code null}.
+     * @param pageable   the pagination information.
+     * @param page       loads a page, with its count.
+     * @param slice      loads a slice, without count.
+     * @param estimate   estimates the number of entities, or {@code null} if the listing has no estimate.
+     * @param entityName the name of the entity, for the error of an unsupported count mode.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of entities in body.
+     */
+    static <T> ResponseEntity<List<T>> listResponse(
+        String count,
+        Pageable pageable,
+        Function<Pageable, Page<T>> page,
+        Function<Pageable, Slice<T>> slice,
+        LongSupplier estimate,
+        String entityName
+    ) {
+        CountMode mode = CountMode.of(count, entityName);
+        UriComponentsBuilder uriBuilder = ServletUriComponentsBuilder.fromCurrentRequest();
+        if (mode == CountMode.EXACT) {
+            Page<T> result = page.apply(pageable);
+            return ResponseEntity.ok().headers(PaginationUtil.generatePaginationHttpHeaders(uriBuilder, result)).body(result.getContent());
+        }
+
+        Slice<T> result = slice.apply(pageable);
+        HttpHeaders headers = generateSliceHttpHeaders(uriBuilder, result);
+        if (mode == CountMode.ESTIMATED && estimate != null) {
+            headers.add(ESTIMATED_TOTAL_COUNT_HEADER, Long.toString(estimate.getAsLong()));
+        }
+        return ResponseEntity.ok().headers(headers).body(result.getContent());
+    }
+
+    static HttpHeaders generateSliceHttpHeaders(UriComponentsBuilder uriBuilder, Slice<?> slice) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HAS_NEXT_PAGE_HEADER, Boolean.toString(slice.hasNext()));
+        int pageNumber = slice.getNumber();
+        int pageSize = slice.getSize();
+        StringBuilder link = new StringBuilder();
+        if (slice.hasNext()) {
+            link.append(prepareLink(uriBuilder, pageNumber + 1, pageSize, "next")).append(",");
+        }
+        if (slice.hasPrevious()) {
+            link.append(prepareLink(uriBuilder, pageNumber - 1, pageSize, "prev")).append(",");
+        }
+        link.append(prepareLink(uriBuilder, 0, pageSize, "first"));
+        headers.add(HttpHeaders.LINK, link.toString());
+        return headers;
+    }
+
+    private static String prepareLink(UriComponentsBuilder uriBuilder, int pageNumber, int pageSize, String relType) {
+        return MessageFormat.format(HEADER_LINK_FORMAT, preparePageUri(uriBuilder, pageNumber, pageSize), relType);
+    }
+
+    private static String preparePageUri(UriComponentsBuilder uriBuilder, int pageNumber, int pageSize) {
+        return uriBuilder
+            .replaceQueryParam("page", Integer.toString(pageNumber))
+            .replaceQueryParam("size", Integer.toString(pageSize))
+            .toUriString()
+            .replace(",", "%2C")
+            .replace(";", "%3B");
+    }
+}
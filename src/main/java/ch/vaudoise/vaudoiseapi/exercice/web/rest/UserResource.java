@@ -4,7 +4,6 @@ import ch.vaudoise.vaudoiseapi.exercice.config.Constants;
 import ch.vaudoise.vaudoiseapi.exercice.domain.User;
 import ch.vaudoise.vaudoiseapi.exercice.repository.UserRepository;
 import ch.vaudoise.vaudoiseapi.exercice.security.AuthoritiesConstants;
-import ch.vaudoise.vaudoiseapi.exercice.service.MailService;
 import ch.vaudoise.vaudoiseapi.exercice.service.UserService;
 import ch.vaudoise.vaudoiseapi.exercice.service.dto.AdminUserDTO;
 import ch.vaudoise.vaudoiseapi.exercice.web.rest.errors.BadRequestAlertException;
@@ -84,12 +83,9 @@ public class UserResource {
 
     private final UserRepository userRepository;
 
-    private final MailService mailService;
-
-    public UserResource(UserService userService, UserRepository userRepository, MailService mailService) {
+    public UserResource(UserService userService, UserRepository userRepository) {
         this.userService = userService;
         this.userRepository = userRepository;
-        this.mailService = mailService;
     }
 
     /**
@@ -118,7 +114,6 @@ public class UserResource {
             throw new EmailAlreadyUsedException();
         } else {
             User newUser = userService.createUser(userDTO);
-            mailService.sendCreationEmail(newUser);
             return ResponseEntity.created(new URI("/api/admin/users/" + newUser.getLogin()))
                 .headers(
                     HeaderUtil.createAlert(applicationName, "A user is created with identifier " + newUser.getLogin(), newUser.getLogin())
@@ -0,0 +1,112 @@
+package ch.vaudoise.vaudoiseapi.exercice.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.ehcache.Cache;
+import org.ehcache.PersistentCacheManager;
+import org.ehcache.config.ResourcePools;
+import org.ehcache.config.ResourceType;
+import org.ehcache.config.builders.CacheManagerBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Unit tests for the {@link CacheConfiguration} class.
+ */
+class CacheConfigurationTest {
+
+    private static final String CONTRACT_CACHE = "ch.vaudoise.vaudoiseapi.exercice.domain.Contract";
+
+    private JHipsterProperties jHipsterProperties;
+
+    private ApplicationProperties applicationProperties;
+
+    @BeforeEach
+    void setUp() {
+        jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getCache().getEhcache().setMaxEntries(100);
+        applicationProperties = new ApplicationProperties();
+    }
+
+    @Test
+    void shouldKeepJHipsterDefaultsForRegionsWithoutConfiguration() {
+        ResourcePools pools = new CacheConfiguration(jHipsterProperties, applicationProperties)
+            .ehcacheConfiguration(CONTRACT_CACHE)
+            .getResourcePools();
+
+        assertThat(pools.getResourceTypeSet()).containsExactly(ResourceType.Core.HEAP);
+        assertThat(pools.getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(100);
+    }
+
+    @Test
+    void shouldBuildTieredRegionFromItsConfiguration(@TempDir Path diskPath) {
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setHeapEntries(10L);
+        region.setOffHeapSize(DataSize.ofMegabytes(1));
+        region.setDiskSize(DataSize.ofMegabytes(2));
+        region.setTimeToIdle(Duration.ofMinutes(5));
+        applicationProperties.getCache().getRegions().put("Contract", region);
+        applicationProperties.getCache().setDiskPath(diskPath.toString());
+
+        var configuration = new CacheConfiguration(jHipsterProperties, applicationProperties).ehcacheConfiguration(CONTRACT_CACHE);
+
+        assertThat(configuration.getResourcePools().getResourceTypeSet()).containsExactlyInAnyOrder(
+            ResourceType.Core.HEAP,
+            ResourceType.Core.OFFHEAP,
+            ResourceType.Core.DISK
+        );
+        try (
+            PersistentCacheManager cacheManager = CacheManagerBuilder.newCacheManagerBuilder()
+                .with(CacheManagerBuilder.persistence(diskPath.toFile()))
+                .withCache(CONTRACT_CACHE, configuration)
+                .build(true)
+        ) {
+            Cache<Serializable, Serializable> cache = cacheManager.getCache(CONTRACT_CACHE, Serializable.class, Serializable.class);
+            for (int i = 0; i < 100; i++) {
+                cache.put(i, "contract-" + i);
+            }
+            assertThat(cache.get(0)).isEqualTo("contract-0");
+        }
+    }
+
+    @Test
+    void shouldRejectHeapTiersLargerThanTheirShareOfTheHeap() {
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setHeapSize(DataSize.ofMegabytes(600));
+        applicationProperties.getCache().getRegions().put("Contract", region);
+
+        assertThatIllegalStateException()
+            .isThrownBy(() -> CacheConfiguration.validate(applicationProperties.getCache(), DataSize.ofGigabytes(1).toBytes()))
+            .withMessageContaining("max-heap-ratio");
+    }
+
+    @Test
+    void shouldRejectAmbiguousRegions() {
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setHeapEntries(10L);
+        region.setHeapSize(DataSize.ofMegabytes(1));
+        applicationProperties.getCache().getRegions().put("Contract", region);
+
+        assertThatIllegalStateException()
+            .isThrownBy(() -> CacheConfiguration.validate(applicationProperties.getCache(), Runtime.getRuntime().maxMemory()))
+            .withMessageContaining("heap-entries and heap-size");
+    }
+
+    @Test
+    void shouldRejectDiskTierWithoutDiskPath() {
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setDiskSize(DataSize.ofMegabytes(10));
+        applicationProperties.getCache().getRegions().put("Contract", region);
+
+        assertThatIllegalStateException()
+            .isThrownBy(() -> CacheConfiguration.validate(applicationProperties.getCache(), Runtime.getRuntime().maxMemory()))
+            .withMessageContaining("disk-path");
+    }
+}
@@ -0,0 +1,97 @@
+package ch.vaudoise.vaudoiseapi.exercice.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.MutableConfiguration;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link PresentOnlyJCacheCache} class.
+ */
+class PresentOnlyJCacheCacheTest {
+
+    private CacheManager cacheManager;
+
+    private PresentOnlyJCacheCache cache;
+
+    @BeforeEach
+    void setUp() {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        cacheManager = provider.getCacheManager(URI.create(getClass().getName()), ConfigurationBuilder.newConfigurationBuilder().build());
+        cache = new PresentOnlyJCacheCache(cacheManager.createCache("presentOnly", new MutableConfiguration<Object, Object>()), true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.close();
+    }
+
+    @Test
+    void shouldStoreLoadedValue() {
+        assertThat(cache.get("login", () -> "user")).isEqualTo("user");
+
+        assertThat(cache.get("login", () -> "other")).isEqualTo("user");
+        assertThat(cache.get("login", String.class)).isEqualTo("user");
+    }
+
+    @Test
+    void shouldNotStoreMiss() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get("unknown", () -> loadNothing(loads))).isNull();
+        assertThat(cache.get("unknown", () -> loadNothing(loads))).isNull();
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.get("unknown")).isNull();
+    }
+
+    @Test
+    void shouldShareConcurrentLoadOfKey() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> first = executor.submit(() ->
+                cache.get("login", () -> {
+                    loads.incrementAndGet();
+                    loading.countDown();
+                    assertThat(release.await(10, TimeUnit.SECONDS)).isTrue();
+                    return "user";
+                })
+            );
+            assertThat(loading.await(10, TimeUnit.SECONDS)).isTrue();
+            Future<Object> second = executor.submit(() ->
+                cache.get("login", () -> {
+                    loads.incrementAndGet();
+                    return "other";
+                })
+            );
+            release.countDown();
+
+            assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo("user");
+            assertThat(second.get(10, TimeUnit.SECONDS)).isEqualTo("user");
+            assertThat(loads).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String loadNothing(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return null;
+    }
+}
@@ -0,0 +1,35 @@
+package ch.vaudoise.vaudoiseapi.exercice.config;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Captures the SQL statements prepared by Hibernate, for the tests asserting on the statements run by a use case.
+ * <p>
+ * It is registered by {@link StatementCaptureConfiguration}, which the tests import.
+ */
+public class StatementCapture implements StatementInspector {
+
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        statements.add(sql);
+        return sql;
+    }
+
+    /**
+     * Forgets the statements captured so far.
+     */
+    public void clear() {
+        statements.clear();
+    }
+
+    /**
+     * @return the statements captured since the last {@link #clear()}, in execution order.
+     */
+    public List<String> getStatements() {
+        return List.copyOf(statements);
+    }
+}
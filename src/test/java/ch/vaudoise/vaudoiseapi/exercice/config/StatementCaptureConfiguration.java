@@ -0,0 +1,23 @@
+package ch.vaudoise.vaudoiseapi.exercice.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Registers a {@link StatementCapture} as the Hibernate statement inspector.
+ */
+@TestConfiguration
+public class StatementCaptureConfiguration {
+
+    @Bean
+    public StatementCapture statementCapture() {
+        return new StatementCapture();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCaptureCustomizer(StatementCapture statementCapture) {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCapture);
+    }
+}
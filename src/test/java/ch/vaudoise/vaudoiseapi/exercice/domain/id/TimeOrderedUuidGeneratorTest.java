@@ -0,0 +1,30 @@
+package ch.vaudoise.vaudoiseapi.exercice.domain.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class TimeOrderedUuidGeneratorTest {
+
+    @Test
+    void shouldGenerateVersion7Uuids() {
+        long before = System.currentTimeMillis();
+        UUID uuid = TimeOrderedUuidGenerator.next();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(uuid.getMostSignificantBits() >>> 16).isBetween(before, System.currentTimeMillis() + 1);
+    }
+
+    @Test
+    void shouldGenerateStrictlyIncreasingUuids() {
+        // The canonical lowercase form compares like the bytes, as PostgreSQL orders uuid values
+        String previous = TimeOrderedUuidGenerator.next().toString();
+        for (int i = 0; i < 100_000; i++) {
+            String next = TimeOrderedUuidGenerator.next().toString();
+            assertThat(next).isGreaterThan(previous);
+            previous = next;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package ch.vaudoise.vaudoiseapi.exercice.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.Serializable;
+import java.net.URI;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.core.spi.service.StatisticsService;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link EhcacheMetrics} and {@link CacheStatisticsEndpoint} classes.
+ */
+class EhcacheMetricsTest {
+
+    private static final String CACHE_NAME = "tiered";
+
+    private CacheManager cacheManager;
+
+    private StatisticsService statisticsService;
+
+    private Cache<Serializable, Serializable> cache;
+
+    @BeforeEach
+    void setUp() {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        cacheManager = provider.getCacheManager(URI.create(getClass().getName()), ConfigurationBuilder.newConfigurationBuilder().build());
+        cache = cacheManager.createCache(
+            CACHE_NAME,
+            Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(
+                    Serializable.class,
+                    Serializable.class,
+                    ResourcePoolsBuilder.heap(10).offheap(1, MemoryUnit.MB)
+                )
+            )
+        );
+
+        statisticsService = EhcacheStatistics.attach(cacheManager);
+
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.put(3, "three");
+        cache.get(1);
+        cache.get(2);
+        cache.get(4);
+        cache.remove(3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.close();
+    }
+
+    @Test
+    void shouldPublishRegionAndTierMeters() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        new EhcacheMetrics(cache, statisticsService, Tags.empty()).bindTo(registry);
+
+        assertThat(registry.get("cache.gets").tags("cache", CACHE_NAME, "result", "hit").functionCounter().count()).isEqualTo(2);
+        assertThat(registry.get("cache.gets").tags("cache", CACHE_NAME, "result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.puts").tags("cache", CACHE_NAME).functionCounter().count()).isEqualTo(3);
+        assertThat(registry.get("cache.removals").tags("cache", CACHE_NAME).functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.size").tags("cache", CACHE_NAME).gauge().value()).isEqualTo(2);
+        assertThat(registry.get("cache.tier.mappings").tags("cache", CACHE_NAME, "tier", "OffHeap").gauge().value()).isEqualTo(2);
+        assertThat(registry.get("cache.tier.occupied").tags("cache", CACHE_NAME, "tier", "OffHeap").gauge().value()).isPositive();
+        assertThat(registry.find("cache.tier.occupied").tags("tier", "OnHeap").gauge()).isNull();
+    }
+
+    @Test
+    void shouldSnapshotHitRatio() {
+        CacheStatisticsEndpoint.RegionStatistics statistics = new CacheStatisticsEndpoint(cacheManager, statisticsService)
+            .regions()
+            .get(CACHE_NAME);
+
+        assertThat(statistics.hits()).isEqualTo(2);
+        assertThat(statistics.misses()).isEqualTo(1);
+        assertThat(statistics.hitRatio()).isEqualTo(2.0 / 3);
+        assertThat(statistics.tiers()).containsOnlyKeys("OnHeap", "OffHeap");
+        assertThat(statistics.tiers().get("OnHeap").occupiedBytes()).isNull();
+    }
+}
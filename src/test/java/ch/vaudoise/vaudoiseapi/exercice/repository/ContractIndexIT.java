@@ -0,0 +1,142 @@
+package ch.vaudoise.vaudoiseapi.exercice.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.vaudoise.vaudoiseapi.exercice.IntegrationTest;
+import ch.vaudoise.vaudoiseapi.exercice.config.StatementCapture;
+import ch.vaudoise.vaudoiseapi.exercice.config.StatementCaptureConfiguration;
+import ch.vaudoise.vaudoiseapi.exercice.service.ContractService;
+import ch.vaudoise.vaudoiseapi.exercice.service.specification.ContractCursor;
+import jakarta.persistence.EntityManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Plan regression tests for the contract access paths.
+ * <p>
+ * The SQL generated by Hibernate is captured and explained as a generic plan with sequential scans disabled,
+ * so that the planner picks an index whenever one can serve the query, whatever the amount of test data.
+ * A test fails if the plan does not use the index designed for the access path.
+ */
+@IntegrationTest
+@Import(StatementCaptureConfiguration.class)
+@Transactional
+class ContractIndexIT {
+
+    @Autowired
+    private StatementCapture statementCapture;
+
+    @Autowired
+    private ContractService contractService;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Test
+    void activeContractsOfCompanyUseCompanyIndex() {
+        assertPlansUse(
+            capture(() -> contractService.findActiveByCompanyId(UUID.randomUUID(), null, null, PageRequest.of(0, 20))),
+            "ix_contract__company_id"
+        );
+    }
+
+    @Test
+    void activeContractsOfPersonUsePersonIndex() {
+        assertPlansUse(
+            capture(() -> contractService.findActiveByPersonId(UUID.randomUUID(), null, null, PageRequest.of(0, 20))),
+            "ix_contract__person_id"
+        );
+    }
+
+    @Test
+    void cursorPageOfCompanyUsesCompanyIndex() {
+        ContractCursor cursor = new ContractCursor(Instant.now(), UUID.randomUUID());
+        assertPlansUse(
+            capture(() -> contractService.findActiveByCompanyIdAfter(UUID.randomUUID(), null, null, cursor, 20)),
+            "ix_contract__company_id"
+        );
+    }
+
+    @Test
+    void companyDeactivationUsesCompanyIndex() {
+        assertPlansUse(
+            capture(() -> contractRepository.deactivateByCompanyId(UUID.randomUUID(), Instant.now())),
+            "ix_contract__company_id"
+        );
+    }
+
+    @Test
+    void expirySweepCheckUsesTrackedIndex() {
+        assertPlansUse(
+            capture(() -> contractRepository.existsByCostTotalTrackedTrueAndEndDateLessThanEqual(Instant.now())),
+            "ix_contract__tracked__end_date"
+        );
+    }
+
+    @Test
+    void activeContractsArePrunedToActivePartition() {
+        List<String> statements = capture(() ->
+            contractService.findActiveByCompanyId(UUID.randomUUID(), null, null, PageRequest.of(0, 20))
+        );
+        for (String sql : statements) {
+            assertThat(explain(sql)).as("Plan of %s", sql).contains("contract_active").doesNotContain("contract_ended");
+        }
+    }
+
+    private List<String> capture(Runnable runnable) {
+        statementCapture.clear();
+        runnable.run();
+        List<String> statements = statementCapture.getStatements().stream()
+            .filter(sql -> sql.contains("from contract ") || sql.startsWith("update contract "))
+            .toList();
+        assertThat(statements).isNotEmpty();
+        return statements;
+    }
+
+    private void assertPlansUse(List<String> statements, String indexName) {
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertThat(plan).as("Plan of %s", sql).contains(indexName).doesNotContain("Seq Scan on contract");
+        }
+    }
+
+    private String explain(String sql) {
+        // EXPLAIN (GENERIC_PLAN) takes numbered parameters instead of JDBC placeholders
+        StringBuilder generic = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                generic.append('$').append(++parameter);
+            } else {
+                generic.append(c);
+            }
+        }
+
+        return em
+            .unwrap(Session.class)
+            .doReturningWork(connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SET LOCAL enable_seqscan = off");
+                    StringBuilder plan = new StringBuilder();
+                    try (ResultSet resultSet = statement.executeQuery("EXPLAIN (GENERIC_PLAN) " + generic)) {
+                        while (resultSet.next()) {
+                            plan.append(resultSet.getString(1)).append('\n');
+                        }
+                    }
+                    return plan.toString();
+                }
+            });
+    }
+}
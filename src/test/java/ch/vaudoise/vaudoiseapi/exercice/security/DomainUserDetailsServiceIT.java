@@ -7,13 +7,17 @@ import ch.vaudoise.vaudoiseapi.exercice.IntegrationTest;
 import ch.vaudoise.vaudoiseapi.exercice.domain.User;
 import ch.vaudoise.vaudoiseapi.exercice.repository.UserRepository;
 import ch.vaudoise.vaudoiseapi.exercice.service.UserService;
+import ch.vaudoise.vaudoiseapi.exercice.service.dto.AdminUserDTO;
 import java.util.Locale;
+import java.util.Set;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.transaction.annotation.Transactional;
@@ -133,4 +137,27 @@ class DomainUserDetailsServiceIT {
             domainUserDetailsService.loadUserByUsername(USER_THREE_LOGIN)
         );
     }
+
+    @Test
+    void assertThatEachAuthenticationGetsItsOwnPrincipal() {
+        UserDetails first = domainUserDetailsService.loadUserByUsername(USER_ONE_LOGIN);
+        ((CredentialsContainer) first).eraseCredentials();
+
+        UserDetails second = domainUserDetailsService.loadUserByUsername(USER_ONE_LOGIN);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getPassword()).isNotNull();
+    }
+
+    @Test
+    void assertThatAuthorityChangesTakeEffectImmediately() {
+        assertThat(domainUserDetailsService.loadUserByUsername(USER_ONE_LOGIN).getAuthorities()).isEmpty();
+
+        AdminUserDTO userDTO = new AdminUserDTO(userRepository.findOneByLogin(USER_ONE_LOGIN).orElseThrow());
+        userDTO.setAuthorities(Set.of(AuthoritiesConstants.ADMIN));
+        userService.updateUser(userDTO);
+
+        assertThat(domainUserDetailsService.loadUserByUsername(USER_ONE_LOGIN).getAuthorities())
+            .extracting(GrantedAuthority::getAuthority)
+            .containsExactly(AuthoritiesConstants.ADMIN);
+    }
 }
@@ -0,0 +1,182 @@
+package ch.vaudoise.vaudoiseapi.exercice.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ch.vaudoise.vaudoiseapi.exercice.domain.PersistentToken;
+import ch.vaudoise.vaudoiseapi.exercice.domain.User;
+import ch.vaudoise.vaudoiseapi.exercice.repository.PersistentTokenRepository;
+import ch.vaudoise.vaudoiseapi.exercice.repository.UserRepository;
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import javax.cache.Caching;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Test class for the {@link PersistentTokenRememberMeServices} concurrency.
+ */
+class PersistentTokenRememberMeServicesTest {
+
+    private static final int UPGRADED_TOKEN_CACHE_SIZE = 1000;
+
+    private javax.cache.CacheManager cacheManager;
+
+    private PersistentTokenRepository persistentTokenRepository;
+
+    private PersistentTokenRememberMeServices rememberMeServices;
+
+    @BeforeEach
+    void setUp() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getRememberMe().setKey("test-key");
+        UserDetailsService userDetailsService = mock(UserDetailsService.class);
+        when(userDetailsService.loadUserByUsername("user")).thenReturn(
+            org.springframework.security.core.userdetails.User.withUsername("user").password("password").authorities(List.of()).build()
+        );
+        persistentTokenRepository = mock(PersistentTokenRepository.class);
+        when(persistentTokenRepository.findById(any())).thenAnswer(invocation -> Optional.of(token(invocation.getArgument(0))));
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        URI uri = URI.create("urn:" + UUID.randomUUID());
+        cacheManager = provider.getCacheManager(uri, ConfigurationBuilder.newConfigurationBuilder().build());
+        cacheManager.createCache(
+            PersistentTokenRememberMeServices.UPGRADED_TOKEN_CACHE,
+            Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(
+                    Object.class,
+                    Object.class,
+                    ResourcePoolsBuilder.heap(UPGRADED_TOKEN_CACHE_SIZE)
+                ).withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(5)))
+            )
+        );
+        rememberMeServices = new PersistentTokenRememberMeServices(
+            jHipsterProperties,
+            userDetailsService,
+            persistentTokenRepository,
+            mock(UserRepository.class),
+            new JCacheCacheManager(cacheManager)
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.close();
+    }
+
+    @Test
+    void parallelRequestsWithSameCookieRefreshTokenOnce() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<UserDetails>> logins = List.of(autoLoginAfter(start, "series"), autoLoginAfter(start, "series"));
+        start.countDown();
+
+        for (CompletableFuture<UserDetails> login : logins) {
+            assertThat(login.get(5, TimeUnit.SECONDS).getUsername()).isEqualTo("user");
+        }
+        verify(persistentTokenRepository, times(1)).saveAndFlush(any());
+    }
+
+    @Test
+    void autoLoginIsNotBlockedByAnotherSeries() throws Exception {
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(persistentTokenRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            PersistentToken token = invocation.getArgument(0);
+            if ("a".equals(token.getSeries())) {
+                saving.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return token;
+        });
+
+        CompletableFuture<UserDetails> blocked = autoLoginAfter(new CountDownLatch(0), "a");
+        assertThat(saving.await(5, TimeUnit.SECONDS)).isTrue();
+        try {
+            assertThat(autoLoginAfter(new CountDownLatch(0), "b").get(5, TimeUnit.SECONDS).getUsername()).isEqualTo("user");
+            assertThat(blocked).isNotDone();
+        } finally {
+            release.countDown();
+        }
+        assertThat(blocked.get(5, TimeUnit.SECONDS).getUsername()).isEqualTo("user");
+    }
+
+    @Test
+    void burstOfDistinctSeriesStaysWithinTheCacheSize() throws Exception {
+        int series = 2 * UPGRADED_TOKEN_CACHE_SIZE;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<UserDetails>> logins = IntStream.range(0, series)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> autoLogin("series-" + i), executor))
+                .toList();
+            for (CompletableFuture<UserDetails> login : logins) {
+                assertThat(login.get(30, TimeUnit.SECONDS).getUsername()).isEqualTo("user");
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        verify(persistentTokenRepository, times(series)).saveAndFlush(any());
+        int cached = 0;
+        for (var ignored : cacheManager.getCache(PersistentTokenRememberMeServices.UPGRADED_TOKEN_CACHE)) {
+            cached++;
+        }
+        assertThat(cached).isPositive().isLessThanOrEqualTo(UPGRADED_TOKEN_CACHE_SIZE);
+        assertThat(autoLogin("series-" + (series - 1)).getUsername()).isEqualTo("user");
+        verify(persistentTokenRepository, times(series)).saveAndFlush(any());
+    }
+
+    private CompletableFuture<UserDetails> autoLoginAfter(CountDownLatch start, String series) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                start.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return autoLogin(series);
+        });
+    }
+
+    private UserDetails autoLogin(String series) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("User-Agent", "Test agent");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        return rememberMeServices.processAutoLoginCookie(new String[] { series, "token-value" }, request, response);
+    }
+
+    private static PersistentToken token(String series) {
+        User user = new User();
+        user.setLogin("user");
+        PersistentToken token = new PersistentToken();
+        token.setSeries(series);
+        token.setTokenValue("token-value");
+        token.setTokenDate(LocalDate.now());
+        token.setUser(user);
+        return token;
+    }
+}
@@ -0,0 +1,109 @@
+package ch.vaudoise.vaudoiseapi.exercice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import ch.vaudoise.vaudoiseapi.exercice.IntegrationTest;
+import ch.vaudoise.vaudoiseapi.exercice.domain.ClientInfo;
+import ch.vaudoise.vaudoiseapi.exercice.domain.Company;
+import ch.vaudoise.vaudoiseapi.exercice.domain.Person;
+import ch.vaudoise.vaudoiseapi.exercice.repository.ClientInfoRepository;
+import ch.vaudoise.vaudoiseapi.exercice.repository.CompanyRepository;
+import ch.vaudoise.vaudoiseapi.exercice.repository.PersonRepository;
+import ch.vaudoise.vaudoiseapi.exercice.service.dto.ClientInfoDTO;
+import jakarta.validation.ConstraintViolationException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link ClientInfoService}.
+ */
+@IntegrationTest
+@Transactional
+class ClientInfoServiceIT {
+
+    @Autowired
+    private ClientInfoService clientInfoService;
+
+    @Autowired
+    private ClientInfoRepository clientInfoRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    private ClientInfo orphan;
+
+    private Person person;
+
+    private Company company;
+
+    @BeforeEach
+    void init() {
+        orphan = clientInfoRepository.saveAndFlush(new ClientInfo().name("AAAAAAAAAA"));
+        person = personRepository.saveAndFlush(new Person().birthDate(LocalDate.now()).clientInfo(new ClientInfo().name("BBBBBBBBBB")));
+        company = companyRepository.saveAndFlush(new Company().companyIdentifier("abc-123").clientInfo(new ClientInfo().name("CCCCCCCCCC")));
+    }
+
+    @Test
+    void assertThatWherePersonIsNullExcludesPersonClientInfos() {
+        Page<ClientInfoDTO> page = clientInfoService.findAllWherePersonIsNull(PageRequest.of(0, Integer.MAX_VALUE));
+
+        assertThat(page.getContent())
+            .extracting(ClientInfoDTO::getId)
+            .contains(orphan.getId(), company.getClientInfo().getId())
+            .doesNotContain(person.getClientInfo().getId());
+    }
+
+    @Test
+    void assertThatExportWhereCompanyIsNullExcludesCompanyClientInfos() {
+        List<UUID> ids = new ArrayList<>();
+
+        long count = clientInfoService.exportWhereCompanyIsNull(clientInfoDTO -> ids.add(clientInfoDTO.getId()));
+
+        assertThat(count).isEqualTo(ids.size());
+        assertThat(ids).contains(orphan.getId(), person.getClientInfo().getId()).doesNotContain(company.getClientInfo().getId());
+    }
+
+    @Test
+    void assertThatPartialUpdateOnlySetsNonNullFields() {
+        ClientInfoDTO patch = new ClientInfoDTO();
+        patch.setEmail("patched@example.com");
+
+        ClientInfoDTO result = clientInfoService.partialUpdate(orphan.getId(), patch).orElseThrow();
+
+        assertThat(result.getEmail()).isEqualTo("patched@example.com");
+        assertThat(result.getName()).isEqualTo("AAAAAAAAAA");
+        assertThat(result.getUpdateDate()).isAfterOrEqualTo(result.getCreationDate());
+        assertThat(clientInfoRepository.findById(orphan.getId()))
+            .get()
+            .extracting(ClientInfo::getEmail)
+            .isEqualTo("patched@example.com");
+    }
+
+    @Test
+    void assertThatPartialUpdateRejectsInvalidValues() {
+        ClientInfoDTO patch = new ClientInfoDTO();
+        patch.setPhone("not a phone");
+
+        assertThatThrownBy(() -> clientInfoService.partialUpdate(orphan.getId(), patch)).isInstanceOf(ConstraintViolationException.class);
+    }
+
+    @Test
+    void assertThatPartialUpdateOfUnknownIdIsEmpty() {
+        ClientInfoDTO patch = new ClientInfoDTO();
+        patch.setName("DDDDDDDDDD");
+
+        assertThat(clientInfoService.partialUpdate(UUID.randomUUID(), patch)).isEmpty();
+    }
+}
@@ -0,0 +1,116 @@
+package ch.vaudoise.vaudoiseapi.exercice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.vaudoise.vaudoiseapi.exercice.IntegrationTest;
+import ch.vaudoise.vaudoiseapi.exercice.domain.ClientInfo;
+import ch.vaudoise.vaudoiseapi.exercice.domain.Company;
+import ch.vaudoise.vaudoiseapi.exercice.domain.Contract;
+import ch.vaudoise.vaudoiseapi.exercice.repository.ClientInfoRepository;
+import ch.vaudoise.vaudoiseapi.exercice.repository.CompanyRepository;
+import ch.vaudoise.vaudoiseapi.exercice.repository.ContractRepository;
+import ch.vaudoise.vaudoiseapi.exercice.service.dto.CompanyDTO;
+import ch.vaudoise.vaudoiseapi.exercice.service.dto.DeactivationResultDTO;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link CompanyService}.
+ */
+@IntegrationTest
+@Transactional
+class CompanyServiceIT {
+
+    private static final Instant ENDED_DATE = Instant.now().minus(10, ChronoUnit.DAYS).truncatedTo(ChronoUnit.MILLIS);
+
+    @Autowired
+    private CompanyService companyService;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private ClientInfoRepository clientInfoRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Test
+    void assertThatDeleteDeactivatesActiveContractsAndClientInfo() {
+        Company company = companyRepository.saveAndFlush(
+            new Company().companyIdentifier("abc-123").clientInfo(new ClientInfo().name("AAAAAAAAAA"))
+        );
+        Contract active = contractRepository.saveAndFlush(createContract(company, null));
+        Contract ended = contractRepository.saveAndFlush(createContract(company, ENDED_DATE));
+
+        DeactivationResultDTO result = companyService.delete(company.getId());
+
+        assertThat(result.contractCount()).isEqualTo(1);
+        assertThat(result.clientInfoCount()).isEqualTo(1);
+        assertThat(contractRepository.findById(active.getId())).get().satisfies(contract -> assertThat(contract.getEndDate()).isNotNull());
+        assertThat(contractRepository.findById(ended.getId())).get().satisfies(contract ->
+            assertThat(contract.getEndDate()).isEqualTo(ENDED_DATE)
+        );
+        assertThat(clientInfoRepository.findByCompanyId(company.getId())).allSatisfy(clientInfo ->
+            assertThat(clientInfo.getActive()).isFalse()
+        );
+
+        // A second deactivation has nothing left to update
+        assertThat(companyService.delete(company.getId())).isEqualTo(new DeactivationResultDTO(0, 0));
+    }
+
+    @Test
+    void assertThatDeleteCountsOnlyActiveContracts() {
+        Company company = companyRepository.saveAndFlush(
+            new Company().companyIdentifier("abc-123").clientInfo(new ClientInfo().name("AAAAAAAAAA"))
+        );
+        contractRepository.saveAndFlush(createContract(company, null));
+        Contract endedTracked = contractRepository.saveAndFlush(createContract(company, null));
+        // Ended behind the entity lifecycle, the contract stays tracked until the expiry sweep
+        em
+            .createNativeQuery("UPDATE contract SET end_date = :endDate WHERE id = :id")
+            .setParameter("endDate", ENDED_DATE)
+            .setParameter("id", endedTracked.getId())
+            .executeUpdate();
+        em.clear();
+
+        DeactivationResultDTO result = companyService.delete(company.getId());
+
+        assertThat(result.contractCount()).isEqualTo(1);
+        assertThat(contractRepository.findById(endedTracked.getId())).get().satisfies(contract -> {
+            assertThat(contract.getEndDate()).isEqualTo(ENDED_DATE);
+            assertThat(contract.getCostTotalTracked()).isTrue();
+        });
+    }
+
+    @Test
+    void assertThatListingDoesNotManageEntities() {
+        Company company = companyRepository.saveAndFlush(
+            new Company().companyIdentifier("abc-123").clientInfo(new ClientInfo().name("AAAAAAAAAA"))
+        );
+        em.clear();
+
+        Page<CompanyDTO> page = companyService.findAll(PageRequest.of(0, Integer.MAX_VALUE));
+
+        assertThat(page.getContent())
+            .filteredOn(companyDTO -> companyDTO.getId().equals(company.getId()))
+            .singleElement()
+            .satisfies(companyDTO -> assertThat(companyDTO.getClientInfo().getName()).isEqualTo("AAAAAAAAAA"));
+        assertThat(em.unwrap(SessionImplementor.class).getPersistenceContext().getNumberOfManagedEntities()).isZero();
+    }
+
+    private static Contract createContract(Company company, Instant endDate) {
+        return new Contract().startDate(Instant.now()).endDate(endDate).costAmount(BigDecimal.TEN).company(company);
+    }
+}
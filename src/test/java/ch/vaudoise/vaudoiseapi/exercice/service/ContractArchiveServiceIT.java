@@ -0,0 +1,59 @@
+package ch.vaudoise.vaudoiseapi.exercice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.vaudoise.vaudoiseapi.exercice.IntegrationTest;
+import ch.vaudoise.vaudoiseapi.exercice.domain.ClientInfo;
+import ch.vaudoise.vaudoiseapi.exercice.domain.Company;
+import ch.vaudoise.vaudoiseapi.exercice.domain.Contract;
+import ch.vaudoise.vaudoiseapi.exercice.repository.CompanyRepository;
+import ch.vaudoise.vaudoiseapi.exercice.repository.ContractRepository;
+import ch.vaudoise.vaudoiseapi.exercice.service.dto.ContractArchiveDTO;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link ContractArchiveService}.
+ */
+@IntegrationTest
+@Transactional
+class ContractArchiveServiceIT {
+
+    @Autowired
+    private ContractArchiveService contractArchiveService;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Test
+    void assertThatOnlyContractsEndedBeforeRetentionAreArchived() {
+        Company company = companyRepository.saveAndFlush(
+            new Company().companyIdentifier("abc-123").clientInfo(new ClientInfo().name("AAAAAAAAAA"))
+        );
+        Contract old = contractRepository.saveAndFlush(createContract(company, Instant.now().minus(3650, ChronoUnit.DAYS)));
+        Contract recent = contractRepository.saveAndFlush(createContract(company, Instant.now().minus(10, ChronoUnit.DAYS)));
+        Contract active = contractRepository.saveAndFlush(createContract(company, null));
+
+        long archived = contractArchiveService.archiveEndedContracts();
+
+        assertThat(archived).isGreaterThanOrEqualTo(1);
+        assertThat(contractRepository.existsById(old.getId())).isFalse();
+        assertThat(contractRepository.existsById(recent.getId())).isTrue();
+        assertThat(contractRepository.existsById(active.getId())).isTrue();
+        assertThat(contractArchiveService.findByCompanyId(company.getId(), PageRequest.of(0, 20)).getContent())
+            .extracting(ContractArchiveDTO::id)
+            .containsExactly(old.getId());
+    }
+
+    private static Contract createContract(Company company, Instant endDate) {
+        return new Contract().startDate(Instant.now()).endDate(endDate).costAmount(BigDecimal.TEN).company(company);
+    }
+}
@@ -0,0 +1,186 @@
+package ch.vaudoise.vaudoiseapi.exercice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.vaudoise.vaudoiseapi.exercice.IntegrationTest;
+import ch.vaudoise.vaudoiseapi.exercice.domain.ClientInfo;
+import ch.vaudoise.vaudoiseapi.exercice.domain.Company;
+import ch.vaudoise.vaudoiseapi.exercice.domain.ContractCostTotal;
+import ch.vaudoise.vaudoiseapi.exercice.domain.enumeration.ContractOwnerType;
+import ch.vaudoise.vaudoiseapi.exercice.repository.CompanyRepository;
+import ch.vaudoise.vaudoiseapi.exercice.repository.ContractCostTotalRepository;
+import ch.vaudoise.vaudoiseapi.exercice.repository.ContractRepository;
+import ch.vaudoise.vaudoiseapi.exercice.service.dto.ContractDTO;
+import ch.vaudoise.vaudoiseapi.exercice.service.dto.CostTotalsDTO;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link ContractCostTotalService}.
+ */
+@IntegrationTest
+@Transactional
+class ContractCostTotalServiceIT {
+
+    @Autowired
+    private ContractService contractService;
+
+    @Autowired
+    private CompanyService companyService;
+
+    @Autowired
+    private ContractCostTotalService contractCostTotalService;
+
+    @Autowired
+    private ContractCostTotalRepository contractCostTotalRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    private Company company;
+
+    @BeforeEach
+    void init() {
+        ClientInfo clientInfo = new ClientInfo().name("AAAAAAAAAA");
+        company = companyRepository.saveAndFlush(new Company().companyIdentifier("abc-123").clientInfo(clientInfo));
+    }
+
+    @Test
+    void assertThatTotalFollowsContractWrites() {
+        ContractDTO first = contractService.save(createContractDTO(new BigDecimal("100.00"), null));
+        ContractDTO second = contractService.save(createContractDTO(new BigDecimal("50.00"), Instant.now().plus(1, ChronoUnit.DAYS)));
+        contractService.save(createContractDTO(new BigDecimal("25.00"), Instant.now().minus(1, ChronoUnit.DAYS)));
+
+        assertThat(contractService.getActiveCostAmountTotalByCompanyId(company.getId())).isEqualByComparingTo("150.00");
+
+        first.setCostAmount(new BigDecimal("120.00"));
+        contractService.update(first);
+        assertThat(contractService.getActiveCostAmountTotalByCompanyId(company.getId())).isEqualByComparingTo("170.00");
+
+        ContractDTO patch = new ContractDTO();
+        patch.setId(second.getId());
+        patch.setEndDate(Instant.now().minus(1, ChronoUnit.HOURS));
+        contractService.partialUpdate(patch);
+        assertThat(contractService.getActiveCostAmountTotalByCompanyId(company.getId())).isEqualByComparingTo("120.00");
+
+        contractService.delete(first.getId());
+        em.flush();
+        assertThat(contractService.getActiveCostAmountTotalByCompanyId(company.getId())).isNull();
+        assertThat(contractCostTotalRepository.findById(company.getId()))
+            .get()
+            .satisfies(total -> assertThat(total.getActiveContractCount()).isZero());
+    }
+
+    @Test
+    void assertThatOwnerDeactivationResetsTotal() {
+        contractService.save(createContractDTO(new BigDecimal("100.00"), null));
+
+        companyService.delete(company.getId());
+        em.flush();
+
+        assertThat(contractService.getActiveCostAmountTotalByCompanyId(company.getId())).isNull();
+        assertThat(contractRepository.findByCompanyId(company.getId())).allSatisfy(contract ->
+            assertThat(contract.getCostTotalTracked()).isFalse()
+        );
+    }
+
+    @Test
+    void assertThatSweepUntracksExpiredContracts() {
+        ContractDTO contractDTO = contractService.save(createContractDTO(new BigDecimal("100.00"), null));
+        em.flush();
+        // Ended behind the entity lifecycle, the contract stays tracked until the sweep
+        em
+            .createNativeQuery("UPDATE contract SET end_date = :endDate WHERE id = :id")
+            .setParameter("endDate", Instant.now().minus(1, ChronoUnit.HOURS))
+            .setParameter("id", contractDTO.getId())
+            .executeUpdate();
+        assertThat(contractService.getActiveCostAmountTotalByCompanyId(company.getId())).isEqualByComparingTo("100.00");
+
+        assertThat(contractCostTotalRepository.sweepExpired(Instant.now(), 10)).isEqualTo(1);
+        em.clear();
+
+        assertThat(contractService.getActiveCostAmountTotalByCompanyId(company.getId())).isNull();
+        assertThat(contractRepository.findById(contractDTO.getId())).get().satisfies(contract ->
+            assertThat(contract.getCostTotalTracked()).isFalse()
+        );
+    }
+
+    @Test
+    void assertThatDatabaseTracksActiveContractsWrittenUntracked() {
+        ContractDTO contractDTO = contractService.save(createContractDTO(new BigDecimal("100.00"), null));
+        em.flush();
+
+        em
+            .createNativeQuery("UPDATE contract SET cost_total_tracked = false WHERE id = :id")
+            .setParameter("id", contractDTO.getId())
+            .executeUpdate();
+        em.clear();
+
+        assertThat(contractService.getActiveCostAmountTotalByCompanyId(company.getId())).isEqualByComparingTo("100.00");
+        assertThat(contractRepository.findById(contractDTO.getId())).get().satisfies(contract ->
+            assertThat(contract.getCostTotalTracked()).isTrue()
+        );
+    }
+
+    @Test
+    void assertThatResyncRepairsTotal() {
+        contractService.save(createContractDTO(new BigDecimal("100.00"), null));
+        em.flush();
+        em
+            .createNativeQuery(
+                "UPDATE contract_cost_total SET active_cost_amount_total = 42.00, active_contract_count = 3 WHERE owner_id = :id"
+            )
+            .setParameter("id", company.getId())
+            .executeUpdate();
+
+        contractCostTotalRepository.resync(company.getId(), ContractOwnerType.COMPANY.name(), Instant.now());
+        em.clear();
+
+        ContractCostTotal total = contractCostTotalRepository.findById(company.getId()).orElseThrow();
+        assertThat(total.getActiveCostAmountTotal()).isEqualByComparingTo("100.00");
+        assertThat(total.getActiveContractCount()).isEqualTo(1L);
+    }
+
+    @Test
+    void assertThatBatchTotalsCoverEveryRequestedOwner() {
+        contractService.save(createContractDTO(new BigDecimal("100.00"), null));
+        contractService.save(createContractDTO(new BigDecimal("50.00"), null));
+        UUID unknownId = UUID.randomUUID();
+
+        Map<UUID, CostTotalsDTO.CostTotal> totals = contractCostTotalService.getActiveCostTotals(
+            ContractOwnerType.COMPANY,
+            List.of(company.getId(), unknownId)
+        );
+
+        assertThat(totals).containsOnlyKeys(company.getId(), unknownId);
+        assertThat(totals.get(company.getId()).activeCostAmountTotal()).isEqualByComparingTo("150.00");
+        assertThat(totals.get(company.getId()).activeContractCount()).isEqualTo(2L);
+        assertThat(totals.get(unknownId)).isEqualTo(CostTotalsDTO.CostTotal.NONE);
+    }
+
+    private ContractDTO createContractDTO(BigDecimal costAmount, Instant endDate) {
+        ContractDTO contractDTO = new ContractDTO();
+        contractDTO.setCreationDate(Instant.now());
+        contractDTO.setUpdateDate(Instant.now());
+        contractDTO.setStartDate(Instant.now());
+        contractDTO.setEndDate(endDate);
+        contractDTO.setCostAmount(costAmount);
+        contractDTO.setCompanyId(company.getId());
+        return contractDTO;
+    }
+}
@@ -0,0 +1,131 @@
+package ch.vaudoise.vaudoiseapi.exercice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ch.vaudoise.vaudoiseapi.exercice.config.ApplicationProperties;
+import ch.vaudoise.vaudoiseapi.exercice.domain.MailOutbox;
+import ch.vaudoise.vaudoiseapi.exercice.repository.MailOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Test class for the {@link MailOutboxService} delivery, against a local SMTP server.
+ */
+class MailOutboxServiceTest {
+
+    private FakeSmtpServer smtpServer;
+
+    private MailOutboxRepository mailOutboxRepository;
+
+    private MeterRegistry meterRegistry;
+
+    private ApplicationProperties applicationProperties;
+
+    private MailOutboxService mailOutboxService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtpServer = new FakeSmtpServer();
+        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost("localhost");
+        javaMailSender.setPort(smtpServer.getPort());
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getMail().setFrom("vaudoiseapi@localhost");
+        applicationProperties = new ApplicationProperties();
+        mailOutboxRepository = mock(MailOutboxRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        mailOutboxService = new MailOutboxService(
+            mailOutboxRepository,
+            javaMailSender,
+            jHipsterProperties,
+            applicationProperties,
+            meterRegistry
+        );
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        smtpServer.close();
+    }
+
+    @Test
+    void sendsBatchOverOneConnection() {
+        List<MailOutbox> batch = List.of(mail("a@example.com", 1), mail("b@example.com", 1), mail("c@example.com", 1));
+        when(mailOutboxRepository.claimDue(any(), any(), anyInt())).thenReturn(batch, List.of());
+
+        assertThat(mailOutboxService.dispatch()).isEqualTo(3);
+
+        assertThat(smtpServer.getMessages()).hasSize(3);
+        assertThat(smtpServer.getConnections()).isEqualTo(1);
+        verify(mailOutboxRepository).deleteAllByIdInBatch(batch.stream().map(MailOutbox::getId).toList());
+        assertThat(meterRegistry.get("mail.outbox.sent").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("mail.outbox.delivery").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void retriesRejectedEmailWithBackoff() {
+        MailOutbox rejected = mail(FakeSmtpServer.REJECTED + "@example.com", 2);
+        MailOutbox accepted = mail("b@example.com", 1);
+        when(mailOutboxRepository.claimDue(any(), any(), anyInt())).thenReturn(List.of(rejected, accepted), List.of());
+        Instant before = Instant.now();
+
+        assertThat(mailOutboxService.dispatch()).isEqualTo(1);
+
+        assertThat(smtpServer.getMessages()).hasSize(1);
+        verify(mailOutboxRepository).deleteAllByIdInBatch(List.of(accepted.getId()));
+        ArgumentCaptor<Instant> nextAttemptDate = ArgumentCaptor.forClass(Instant.class);
+        verify(mailOutboxRepository).reschedule(eq(rejected.getId()), nextAttemptDate.capture(), anyString());
+        assertThat(nextAttemptDate.getValue()).isBetween(before.plus(Duration.ofMinutes(2)), Instant.now().plus(Duration.ofMinutes(2)));
+        assertThat(meterRegistry.get("mail.outbox.failed").tag("outcome", "retried").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        MailOutbox rejected = mail(FakeSmtpServer.REJECTED + "@example.com", applicationProperties.getMailOutbox().getMaxAttempts());
+        when(mailOutboxRepository.claimDue(any(), any(), anyInt())).thenReturn(List.of(rejected), List.of());
+
+        assertThat(mailOutboxService.dispatch()).isZero();
+
+        verify(mailOutboxRepository).reschedule(eq(rejected.getId()), isNull(), anyString());
+        verify(mailOutboxRepository, never()).deleteAllByIdInBatch(any());
+        assertThat(meterRegistry.get("mail.outbox.failed").tag("outcome", "given-up").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void doublesBackoffUpToItsMaximum() {
+        assertThat(mailOutboxService.backoff(1)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(mailOutboxService.backoff(3)).isEqualTo(Duration.ofMinutes(4));
+        assertThat(mailOutboxService.backoff(40)).isEqualTo(Duration.ofHours(1));
+    }
+
+    private static MailOutbox mail(String recipient, int attempts) {
+        return new MailOutbox()
+            .id(UUID.randomUUID())
+            .recipient(recipient)
+            .subject("testSubject")
+            .content("testContent")
+            .multipart(false)
+            .html(false)
+            .createdDate(Instant.now())
+            .attempts(attempts);
+    }
+}
@@ -0,0 +1,132 @@
+package ch.vaudoise.vaudoiseapi.exercice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import ch.vaudoise.vaudoiseapi.exercice.domain.MailOutbox;
+import ch.vaudoise.vaudoiseapi.exercice.domain.User;
+import ch.vaudoise.vaudoiseapi.exercice.repository.MailOutboxRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.MessageSource;
+import org.springframework.context.support.StaticMessageSource;
+import org.thymeleaf.IEngineConfiguration;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.templateresource.ITemplateResource;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Test class for the {@link MailService} rendering of the templated emails.
+ */
+class MailServiceTest {
+
+    private static final int USER_COUNT = 200;
+
+    private final AtomicInteger templateResolutions = new AtomicInteger();
+
+    private MailOutboxRepository mailOutboxRepository;
+
+    private MessageSource subjects;
+
+    private MailService mailService;
+
+    @BeforeEach
+    void setUp() {
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.addMessage("email.test.title", Locale.ENGLISH, "test title");
+        messageSource.addMessage("email.test.title", Locale.FRENCH, "titre de test");
+
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver() {
+            @Override
+            protected ITemplateResource computeTemplateResource(
+                IEngineConfiguration configuration,
+                String ownerTemplate,
+                String template,
+                String resourceName,
+                String characterEncoding,
+                Map<String, Object> templateResolutionAttributes
+            ) {
+                templateResolutions.incrementAndGet();
+                return super.computeTemplateResource(
+                    configuration,
+                    ownerTemplate,
+                    template,
+                    resourceName,
+                    characterEncoding,
+                    templateResolutionAttributes
+                );
+            }
+        };
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        templateEngine.setTemplateEngineMessageSource(messageSource);
+
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getMail().setBaseUrl("http://127.0.0.1:8080");
+        mailOutboxRepository = mock(MailOutboxRepository.class);
+        subjects = spy(messageSource);
+        mailService = new MailService(jHipsterProperties, mailOutboxRepository, subjects, templateEngine);
+    }
+
+    @Test
+    void rendersEachRecipientWithTemplateParsedOnceAndSubjectResolvedOncePerLanguage() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USER_COUNT; i++) {
+            users.add(user("user" + i, i % 2 == 0 ? "en" : "fr"));
+        }
+
+        mailService.sendEmailFromTemplate(users, "mail/testEmail", "email.test.title");
+
+        ArgumentCaptor<MailOutbox> mails = ArgumentCaptor.forClass(MailOutbox.class);
+        verify(mailOutboxRepository, times(USER_COUNT)).save(mails.capture());
+        for (int i = 0; i < USER_COUNT; i++) {
+            String title = i % 2 == 0 ? "test title" : "titre de test";
+            String login = "user" + i;
+            assertThat(mails.getAllValues())
+                .filteredOn(mail -> mail.getRecipient().equals(login + "@example.com"))
+                .singleElement()
+                .satisfies(mail -> {
+                    assertThat(mail.getSubject()).isEqualTo(title);
+                    assertThat(mail.getContent()).isEqualToNormalizingNewlines(
+                        "<html>" + title + ", http://127.0.0.1:8080, " + login + "</html>\n"
+                    );
+                });
+        }
+        assertThat(templateResolutions).hasValue(1);
+        verify(subjects, times(2)).getMessage(anyString(), any(), any(Locale.class));
+    }
+
+    @Test
+    void skipsUsersWithoutEmail() {
+        User withoutEmail = user("john", "en");
+        withoutEmail.setEmail(null);
+
+        mailService.sendEmailFromTemplate(List.of(withoutEmail, user("jane", "en")), "mail/testEmail", "email.test.title");
+
+        ArgumentCaptor<MailOutbox> mails = ArgumentCaptor.forClass(MailOutbox.class);
+        verify(mailOutboxRepository).save(mails.capture());
+        assertThat(mails.getValue().getRecipient()).isEqualTo("jane@example.com");
+    }
+
+    private static User user(String login, String langKey) {
+        User user = new User();
+        user.setLogin(login);
+        user.setEmail(login + "@example.com");
+        user.setLangKey(langKey);
+        return user;
+    }
+}
@@ -0,0 +1,175 @@
+package ch.vaudoise.vaudoiseapi.exercice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import ch.vaudoise.vaudoiseapi.exercice.IntegrationTest;
+import ch.vaudoise.vaudoiseapi.exercice.domain.ClientInfo;
+import ch.vaudoise.vaudoiseapi.exercice.domain.Company;
+import ch.vaudoise.vaudoiseapi.exercice.repository.CompanyRepository;
+import ch.vaudoise.vaudoiseapi.exercice.repository.ContractCostTotalRepository;
+import ch.vaudoise.vaudoiseapi.exercice.service.dto.ContractDTO;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link PartitionMoveRetry}, applied to the contract writes by {@link PartitionMoveRetryAspect},
+ * and the uniqueness of the contract ids across the partitions of the contract table.
+ * <p>
+ * The races need concurrent transactions, so the test data is committed instead of being rolled back with a test
+ * transaction.
+ */
+@IntegrationTest
+class PartitionMoveRetryIT {
+
+    @Autowired
+    private ContractService contractService;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private ContractCostTotalRepository contractCostTotalRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    private Company company;
+
+    private ContractDTO contract;
+
+    @BeforeEach
+    void init() {
+        company = companyRepository.saveAndFlush(
+            new Company().companyIdentifier("prt-001").clientInfo(new ClientInfo().name("AAAAAAAAAA"))
+        );
+        ContractDTO contractDTO = new ContractDTO();
+        contractDTO.setCreationDate(Instant.now());
+        contractDTO.setUpdateDate(Instant.now());
+        contractDTO.setStartDate(Instant.now());
+        contractDTO.setCostAmount(new BigDecimal("100.00"));
+        contractDTO.setCompanyId(company.getId());
+        contract = contractService.save(contractDTO);
+    }
+
+    @AfterEach
+    void cleanup() {
+        executor.shutdownNow();
+        contractService.delete(contract.getId());
+        contractCostTotalRepository.deleteById(company.getId());
+        companyRepository.deleteById(company.getId());
+    }
+
+    @Test
+    void writeWaitingOnMovedContractFailsWithinEnclosingTransaction() {
+        Future<Optional<ContractDTO>> write = raceWithPartitionMove(() ->
+            new TransactionTemplate(transactionManager).execute(status -> contractService.partialUpdate(startDatePatch()))
+        );
+
+        assertThatThrownBy(() -> write.get(10, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .satisfies(e -> assertThat(PartitionMoveRetry.isPartitionMove(e)).isTrue());
+    }
+
+    @Test
+    void writeWaitingOnMovedContractIsRetried() throws Exception {
+        ContractDTO patch = startDatePatch();
+        Future<Optional<ContractDTO>> write = raceWithPartitionMove(() -> contractService.partialUpdate(patch));
+
+        assertThat(write.get(10, TimeUnit.SECONDS)).isPresent();
+        assertThat(contractService.findOne(contract.getId())).get().satisfies(updated ->
+            assertThat(updated.getStartDate()).isEqualTo(patch.getStartDate())
+        );
+    }
+
+    @Test
+    void contractIdsAreUniqueAcrossPartitions() {
+        assertThatThrownBy(() ->
+            jdbcTemplate.update(
+                "INSERT INTO contract (id, creation_date, update_date, start_date, end_date, cost_amount, person_id, company_id, " +
+                "cost_total_tracked) SELECT id, creation_date, update_date, start_date, end_date, cost_amount, person_id, company_id, " +
+                "NOT cost_total_tracked FROM contract WHERE id = ?",
+                contract.getId()
+            )
+        ).isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    /**
+     * Starts a write of the contract while a concurrent transaction, which has ended the contract and moved it to the
+     * other partition, holds its lock. The concurrent transaction commits once the write waits on the lock.
+     */
+    private <T> Future<T> raceWithPartitionMove(Callable<T> write) {
+        CountDownLatch moved = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() ->
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                jdbcTemplate.update(
+                    "UPDATE contract SET end_date = ?, cost_total_tracked = false WHERE id = ?",
+                    Timestamp.from(Instant.now().minus(1, ChronoUnit.DAYS)),
+                    contract.getId()
+                );
+                moved.countDown();
+                awaitQuietly(release);
+            })
+        );
+        awaitQuietly(moved);
+        Future<T> result = executor.submit(write);
+        awaitLockWait();
+        release.countDown();
+        return result;
+    }
+
+    private void awaitLockWait() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (lockWaits() == 0) {
+            assertThat(System.nanoTime()).as("Write waiting on the lock of the moved contract").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    private int lockWaits() {
+        return jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM pg_stat_activity WHERE datname = current_database() AND wait_event_type = 'Lock'",
+            Integer.class
+        );
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ContractDTO startDatePatch() {
+        ContractDTO patch = new ContractDTO();
+        patch.setId(contract.getId());
+        patch.setStartDate(Instant.now().minus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.MILLIS));
+        return patch;
+    }
+}
@@ -5,9 +5,12 @@ import static org.mockito.Mockito.when;
 
 import ch.vaudoise.vaudoiseapi.exercice.IntegrationTest;
 import ch.vaudoise.vaudoiseapi.exercice.domain.PersistentToken;
+import ch.vaudoise.vaudoiseapi.exercice.domain.MailOutbox;
 import ch.vaudoise.vaudoiseapi.exercice.domain.User;
+import ch.vaudoise.vaudoiseapi.exercice.repository.MailOutboxRepository;
 import ch.vaudoise.vaudoiseapi.exercice.repository.PersistentTokenRepository;
 import ch.vaudoise.vaudoiseapi.exercice.repository.UserRepository;
+import ch.vaudoise.vaudoiseapi.exercice.service.dto.AdminUserDTO;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -59,6 +62,9 @@ class UserServiceIT {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private MailOutboxRepository mailOutboxRepository;
+
     @Autowired
     private AuditingHandler auditingHandler;
 
@@ -226,6 +232,56 @@ class UserServiceIT {
         assertThat(maybeDbUser).contains(dbUser);
     }
 
+    @Test
+    @Transactional
+    void assertThatUserEmailsAreQueuedInTheUserTransaction() {
+        userService.registerUser(new AdminUserDTO(user), RandomStringUtils.insecure().nextAlphanumeric(10));
+        userService.activateRegistration(userRepository.findOneByLogin(DEFAULT_LOGIN).orElseThrow().getActivationKey());
+        userService.requestPasswordReset(DEFAULT_EMAIL);
+        AdminUserDTO createdUser = new AdminUserDTO(user);
+        createdUser.setLogin("created_" + DEFAULT_LOGIN);
+        createdUser.setEmail("created_" + DEFAULT_EMAIL);
+        userService.createUser(createdUser);
+
+        List<String> recipients = mailOutboxRepository.findAll().stream().map(MailOutbox::getRecipient).toList();
+        assertThat(recipients).filteredOn(DEFAULT_EMAIL::equals).hasSize(2);
+        assertThat(recipients).containsOnlyOnce("created_" + DEFAULT_EMAIL);
+        userService.deleteUser(createdUser.getLogin());
+    }
+
+    @Test
+    @Transactional
+    void assertThatUnknownUserIsNotCached() {
+        assertThat(userRepository.findOneWithAuthoritiesByLogin(DEFAULT_LOGIN)).isEmpty();
+        assertThat(userRepository.findOneWithAuthoritiesByEmailIgnoreCase(DEFAULT_EMAIL.toUpperCase())).isEmpty();
+        assertThat(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).get(DEFAULT_LOGIN)).isNull();
+        assertThat(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE).get(DEFAULT_EMAIL.toLowerCase())).isNull();
+
+        userService.createUser(new AdminUserDTO(user));
+
+        assertThat(userRepository.findOneWithAuthoritiesByLogin(DEFAULT_LOGIN)).isPresent();
+        assertThat(userRepository.findOneWithAuthoritiesByEmailIgnoreCase(DEFAULT_EMAIL.toUpperCase())).isPresent();
+    }
+
+    @Test
+    @Transactional
+    void assertThatDeletedNotActivatedUsersAreEvictedFromCaches() {
+        Instant now = Instant.now();
+        when(dateTimeProvider.getNow()).thenReturn(Optional.of(now.minus(4, ChronoUnit.DAYS)));
+        user.setActivated(false);
+        user.setActivationKey(RandomStringUtils.insecure().next(20));
+        User dbUser = userRepository.saveAndFlush(user);
+        dbUser.setCreatedDate(now.minus(4, ChronoUnit.DAYS));
+        userRepository.saveAndFlush(user);
+        assertThat(userRepository.findOneWithAuthoritiesByLogin(DEFAULT_LOGIN)).isPresent();
+        assertThat(userRepository.findOneWithAuthoritiesByEmailIgnoreCase(DEFAULT_EMAIL)).isPresent();
+
+        assertThat(userService.removeNotActivatedUsers()).isGreaterThanOrEqualTo(1);
+
+        assertThat(userRepository.findOneWithAuthoritiesByLogin(DEFAULT_LOGIN)).isEmpty();
+        assertThat(userRepository.findOneWithAuthoritiesByEmailIgnoreCase(DEFAULT_EMAIL)).isEmpty();
+    }
+
     private void generateUserToken(User user, String tokenSeries, LocalDate localDate) {
         PersistentToken token = new PersistentToken();
         token.setSeries(tokenSeries);
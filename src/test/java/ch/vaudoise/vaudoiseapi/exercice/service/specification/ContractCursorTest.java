@@ -0,0 +1,34 @@
+package ch.vaudoise.vaudoiseapi.exercice.service.specification;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class ContractCursorTest {
+
+    @Test
+    void shouldEncodeAndDecode() {
+        ContractCursor cursor = new ContractCursor(Instant.parse("2025-10-23T13:27:35.123456Z"), UUID.randomUUID());
+
+        String token = cursor.encode();
+
+        assertThat(token).doesNotContain("|", "=", "+", "/");
+        assertThat(ContractCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void shouldDecodeEmptyTokenAsFirstPage() {
+        assertThat(ContractCursor.decode(null)).isNull();
+        assertThat(ContractCursor.decode("")).isNull();
+    }
+
+    @Test
+    void shouldRejectMalformedToken() {
+        assertThatThrownBy(() -> ContractCursor.decode("not a cursor")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ContractCursor.decode("bm8tc2VwYXJhdG9y")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ContractCursor.decode("eHxub3QtYS11dWlk")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -23,6 +23,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -273,6 +274,38 @@ class ClientInfoResourceIT {
             .andExpect(jsonPath("$.active").value(DEFAULT_ACTIVE));
     }
 
+    @Test
+    @Transactional
+    void getClientInfoNotModified() throws Exception {
+        // Initialize the database
+        insertedClientInfo = clientInfoRepository.saveAndFlush(clientInfo);
+        long lastModified = clientInfo.getUpdateDate().truncatedTo(ChronoUnit.SECONDS).toEpochMilli();
+
+        // Get the clientInfo and its validators
+        String eTag = restClientInfoMockMvc
+            .perform(get(ENTITY_API_URL_ID, clientInfo.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, lastModified))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).startsWith("\"").endsWith("\"");
+
+        // Get the clientInfo again with its ETag
+        restClientInfoMockMvc
+            .perform(get(ENTITY_API_URL_ID, clientInfo.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag))
+            .andExpect(content().string(""));
+
+        // A stale ETag gets the clientInfo
+        restClientInfoMockMvc
+            .perform(get(ENTITY_API_URL_ID, clientInfo.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(clientInfo.getId().toString()));
+    }
+
     @Test
     @Transactional
     void getNonExistingClientInfo() throws Exception {
@@ -11,7 +11,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import ch.vaudoise.vaudoiseapi.exercice.IntegrationTest;
 import ch.vaudoise.vaudoiseapi.exercice.domain.Company;
 import ch.vaudoise.vaudoiseapi.exercice.repository.CompanyRepository;
+import ch.vaudoise.vaudoiseapi.exercice.service.dto.ClientInfoDTO;
 import ch.vaudoise.vaudoiseapi.exercice.service.dto.CompanyDTO;
+import ch.vaudoise.vaudoiseapi.exercice.service.dto.CompanyUpdateDTO;
 import ch.vaudoise.vaudoiseapi.exercice.service.mapper.CompanyMapper;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityManager;
@@ -339,6 +341,32 @@ class CompanyResourceIT {
         assertCompanyUpdatableFieldsEquals(partialUpdatedCompany, getPersistedCompany(partialUpdatedCompany));
     }
 
+    @Test
+    @Transactional
+    void patchCompanyWithoutClientInfo() throws Exception {
+        // Initialize the database
+        insertedCompany = companyRepository.saveAndFlush(company);
+
+        // Update the client info of a company that has none
+        ClientInfoDTO clientInfoDTO = new ClientInfoDTO();
+        clientInfoDTO.setName("BBBBBBBBBB");
+        CompanyUpdateDTO companyUpdateDTO = new CompanyUpdateDTO();
+        companyUpdateDTO.setId(company.getId());
+        companyUpdateDTO.setClientInfo(clientInfoDTO);
+
+        restCompanyMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, company.getId())
+                    .with(csrf())
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(companyUpdateDTO))
+            )
+            .andExpect(status().isNotFound());
+
+        // Validate the Company in the database
+        assertThat(getPersistedCompany(company).getClientInfo()).isNull();
+    }
+
     @Test
     @Transactional
     void patchNonExistingCompany() throws Exception {
@@ -416,7 +444,9 @@ class CompanyResourceIT {
         // Delete the company
         restCompanyMockMvc
             .perform(delete(ENTITY_API_URL_ID, company.getId().toString()).with(csrf()).accept(MediaType.APPLICATION_JSON))
-            .andExpect(status().isNoContent());
+            .andExpect(status().isNoContent())
+            .andExpect(header().string("X-Deactivated-Contracts", "0"))
+            .andExpect(header().string("X-Deactivated-Client-Infos", "0"));
 
         // Validate the database contains one less item
         assertDecrementedRepositoryCount(databaseSizeBeforeDelete);
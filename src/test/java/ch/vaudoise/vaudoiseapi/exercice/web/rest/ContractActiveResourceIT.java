@@ -0,0 +1,126 @@
+package ch.vaudoise.vaudoiseapi.exercice.web.rest;
+
+import static ch.vaudoise.vaudoiseapi.exercice.web.rest.TestUtil.sameNumber;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import ch.vaudoise.vaudoiseapi.exercice.IntegrationTest;
+import ch.vaudoise.vaudoiseapi.exercice.domain.ClientInfo;
+import ch.vaudoise.vaudoiseapi.exercice.domain.Company;
+import ch.vaudoise.vaudoiseapi.exercice.domain.Contract;
+import ch.vaudoise.vaudoiseapi.exercice.repository.CompanyRepository;
+import ch.vaudoise.vaudoiseapi.exercice.repository.ContractRepository;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the active contracts of the {@link ContractResource} REST controller, written without going
+ * through {@link ch.vaudoise.vaudoiseapi.exercice.service.ContractService}.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+@Transactional
+class ContractActiveResourceIT {
+
+    private static final String ACTIVE_API_URL = "/api/contracts/company/{companyId}/active";
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restContractMockMvc;
+
+    private Company company;
+
+    @BeforeEach
+    void initTest() {
+        company = companyRepository.saveAndFlush(
+            new Company().companyIdentifier("act-001").clientInfo(new ClientInfo().name("AAAAAAAAAA"))
+        );
+    }
+
+    @Test
+    void activeContractSavedThroughRepositoryIsListed() throws Exception {
+        Contract contract = contractRepository.saveAndFlush(createContract(null));
+        contractRepository.saveAndFlush(createContract(Instant.now().minus(1, ChronoUnit.DAYS)));
+
+        restContractMockMvc
+            .perform(get(ACTIVE_API_URL, company.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].id").value(contains(contract.getId().toString())));
+        restContractMockMvc
+            .perform(get(ACTIVE_API_URL + "/costAmountTotal", company.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").value(sameNumber(new BigDecimal("100.00"))));
+    }
+
+    @Test
+    void activeContractInsertedUntrackedIsListed() throws Exception {
+        UUID id = UUID.randomUUID();
+        em
+            .createNativeQuery(
+                "INSERT INTO contract (id, creation_date, update_date, start_date, cost_amount, company_id, cost_total_tracked) " +
+                "VALUES (:id, :now, :now, :now, 100.00, :companyId, false)"
+            )
+            .setParameter("id", id)
+            .setParameter("now", Instant.now())
+            .setParameter("companyId", company.getId())
+            .executeUpdate();
+
+        restContractMockMvc
+            .perform(get(ACTIVE_API_URL, company.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].id").value(contains(id.toString())));
+        restContractMockMvc
+            .perform(get(ACTIVE_API_URL + "/costAmountTotal", company.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").value(sameNumber(new BigDecimal("100.00"))));
+    }
+
+    @Test
+    void contractEndedThroughRepositoryIsNotListed() throws Exception {
+        Contract contract = contractRepository.saveAndFlush(createContract(null));
+
+        contractRepository.saveAndFlush(contract.endDate(Instant.now().minus(1, ChronoUnit.HOURS)));
+
+        restContractMockMvc
+            .perform(get(ACTIVE_API_URL, company.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").value(empty()));
+        restContractMockMvc
+            .perform(get(ACTIVE_API_URL + "/costAmountTotal", company.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().string(""));
+    }
+
+    private Contract createContract(Instant endDate) {
+        return new Contract()
+            .creationDate(Instant.now())
+            .updateDate(Instant.now())
+            .startDate(Instant.now())
+            .endDate(endDate)
+            .costAmount(new BigDecimal("100.00"))
+            .company(company);
+    }
+}
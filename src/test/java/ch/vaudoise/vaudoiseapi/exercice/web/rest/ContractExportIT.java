@@ -0,0 +1,153 @@
+package ch.vaudoise.vaudoiseapi.exercice.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import ch.vaudoise.vaudoiseapi.exercice.IntegrationTest;
+import ch.vaudoise.vaudoiseapi.exercice.domain.ClientInfo;
+import ch.vaudoise.vaudoiseapi.exercice.domain.Company;
+import ch.vaudoise.vaudoiseapi.exercice.repository.CompanyRepository;
+import ch.vaudoise.vaudoiseapi.exercice.repository.ContractCostTotalRepository;
+import ch.vaudoise.vaudoiseapi.exercice.service.ContractService;
+import ch.vaudoise.vaudoiseapi.exercice.service.dto.ContractDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Integration tests for the NDJSON export of the {@link ContractResource} REST controller.
+ * <p>
+ * The export streams from its own transaction once the request is handed over asynchronously, so the test data is
+ * committed instead of being rolled back with a test transaction.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ContractExportIT {
+
+    private static final String EXPORT_API_URL = "/api/contracts/export";
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private ContractService contractService;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private ContractCostTotalRepository contractCostTotalRepository;
+
+    @Autowired
+    private MockMvc restContractMockMvc;
+
+    private final List<UUID> insertedContractIds = new ArrayList<>();
+
+    private Company company;
+
+    private Company otherCompany;
+
+    private ContractDTO activeContract;
+
+    private ContractDTO endedContract;
+
+    @BeforeEach
+    void initTest() {
+        company = companyRepository.saveAndFlush(
+            new Company().companyIdentifier("exp-001").clientInfo(new ClientInfo().name("AAAAAAAAAA"))
+        );
+        otherCompany = companyRepository.saveAndFlush(
+            new Company().companyIdentifier("exp-002").clientInfo(new ClientInfo().name("BBBBBBBBBB"))
+        );
+        activeContract = insertContract(company, null);
+        endedContract = insertContract(company, Instant.now().minus(1, ChronoUnit.DAYS));
+        insertContract(otherCompany, null);
+    }
+
+    @AfterEach
+    void cleanup() {
+        insertedContractIds.forEach(contractService::delete);
+        for (Company inserted : List.of(company, otherCompany)) {
+            contractCostTotalRepository.deleteById(inserted.getId());
+            companyRepository.deleteById(inserted.getId());
+        }
+    }
+
+    @Test
+    void exportIsNewlineDelimitedJson() throws Exception {
+        List<ContractDTO> exported = export("?companyId=" + company.getId());
+
+        assertThat(exported).extracting(ContractDTO::getId).containsExactlyInAnyOrder(activeContract.getId(), endedContract.getId());
+    }
+
+    @Test
+    void exportAppliesActiveFilter() throws Exception {
+        List<ContractDTO> exported = export("?companyId=" + company.getId() + "&active=true");
+
+        assertThat(exported).extracting(ContractDTO::getId).containsExactly(activeContract.getId());
+    }
+
+    @Test
+    void exportAppliesUpdateDateFilter() throws Exception {
+        Instant tomorrow = Instant.now().plus(1, ChronoUnit.DAYS);
+
+        assertThat(export("?companyId=" + company.getId() + "&updatedFrom=" + tomorrow)).isEmpty();
+        assertThat(export("?companyId=" + company.getId() + "&updatedTo=" + tomorrow)).hasSize(2);
+    }
+
+    /**
+     * Runs an export, checking that the body holds exactly one JSON object per line.
+     */
+    private List<ContractDTO> export(String query) throws Exception {
+        MvcResult started = restContractMockMvc
+            .perform(get(EXPORT_API_URL + query).accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String body = restContractMockMvc
+            .perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        assertThat(body.isEmpty() || body.endsWith("\n")).as("Body ends with a newline").isTrue();
+        List<ContractDTO> contracts = new ArrayList<>();
+        for (String line : body.lines().toList()) {
+            assertThat(om.readTree(line).isObject()).as("Line %s", line).isTrue();
+            contracts.add(om.readValue(line, ContractDTO.class));
+        }
+        return contracts;
+    }
+
+    private ContractDTO insertContract(Company owner, Instant endDate) {
+        ContractDTO contractDTO = new ContractDTO();
+        contractDTO.setCreationDate(Instant.now());
+        contractDTO.setUpdateDate(Instant.now());
+        contractDTO.setStartDate(Instant.now().minus(2, ChronoUnit.DAYS));
+        contractDTO.setEndDate(endDate);
+        contractDTO.setCostAmount(new BigDecimal("100.00"));
+        contractDTO.setCompanyId(owner.getId());
+        ContractDTO saved = contractService.save(contractDTO);
+        insertedContractIds.add(saved.getId());
+        return saved;
+    }
+}
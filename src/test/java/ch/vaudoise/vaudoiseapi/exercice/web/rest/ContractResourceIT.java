@@ -25,6 +25,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -268,6 +269,29 @@ class ContractResourceIT {
             .andExpect(jsonPath("$.costAmount").value(sameNumber(DEFAULT_COST_AMOUNT)));
     }
 
+    @Test
+    @Transactional
+    void getContractNotModifiedSince() throws Exception {
+        // Initialize the database
+        insertedContract = contractRepository.saveAndFlush(contract);
+
+        // Get the contract and its last modification date
+        String lastModified = restContractMockMvc
+            .perform(get(ENTITY_API_URL_ID, contract.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.LAST_MODIFIED);
+
+        // Get the contract again since its last modification date
+        restContractMockMvc
+            .perform(get(ENTITY_API_URL_ID, contract.getId()).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
     @Test
     @Transactional
     void getNonExistingContract() throws Exception {
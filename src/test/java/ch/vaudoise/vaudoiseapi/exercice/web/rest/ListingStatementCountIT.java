@@ -0,0 +1,113 @@
+package ch.vaudoise.vaudoiseapi.exercice.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import ch.vaudoise.vaudoiseapi.exercice.IntegrationTest;
+import ch.vaudoise.vaudoiseapi.exercice.config.StatementCapture;
+import ch.vaudoise.vaudoiseapi.exercice.config.StatementCaptureConfiguration;
+import ch.vaudoise.vaudoiseapi.exercice.domain.ClientInfo;
+import ch.vaudoise.vaudoiseapi.exercice.domain.Company;
+import ch.vaudoise.vaudoiseapi.exercice.domain.Person;
+import ch.vaudoise.vaudoiseapi.exercice.repository.CompanyRepository;
+import ch.vaudoise.vaudoiseapi.exercice.repository.PersonRepository;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.function.IntConsumer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Statement count regression tests for the person and company listings: the number of SQL statements of a
+ * listing request must not depend on the number of entities listed. A single person or company is read with its
+ * client info in one statement.
+ */
+@IntegrationTest
+@Import(StatementCaptureConfiguration.class)
+@AutoConfigureMockMvc
+@WithMockUser
+@Transactional
+class ListingStatementCountIT {
+
+    @Autowired
+    private StatementCapture statementCapture;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    @Test
+    void peopleListingStatementCountIsConstant() throws Exception {
+        assertStatementCountIsConstant(
+            "/api/people?size=50",
+            count -> {
+                for (int i = 0; i < count; i++) {
+                    personRepository.save(new Person().birthDate(LocalDate.now()).clientInfo(new ClientInfo().name("AAAAAAAAAA")));
+                }
+            }
+        );
+    }
+
+    @Test
+    void companiesListingStatementCountIsConstant() throws Exception {
+        assertStatementCountIsConstant(
+            "/api/companies?size=50",
+            count -> {
+                for (int i = 0; i < count; i++) {
+                    companyRepository.save(
+                        new Company().companyIdentifier(String.format("abc-%03d", i)).clientInfo(new ClientInfo().name("AAAAAAAAAA"))
+                    );
+                }
+            }
+        );
+    }
+
+    @Test
+    void personIsLoadedWithItsClientInfo() throws Exception {
+        Person person = personRepository.save(new Person().birthDate(LocalDate.now()).clientInfo(new ClientInfo().name("AAAAAAAAAA")));
+
+        assertThat(countStatements("/api/people/" + person.getId())).as("version and select").isEqualTo(2);
+    }
+
+    @Test
+    void companyIsLoadedWithItsClientInfo() throws Exception {
+        Company company = companyRepository.save(
+            new Company().companyIdentifier("abc-001").clientInfo(new ClientInfo().name("AAAAAAAAAA"))
+        );
+
+        assertThat(countStatements("/api/companies/" + company.getId())).as("version and select").isEqualTo(2);
+    }
+
+    private void assertStatementCountIsConstant(String url, IntConsumer insert) throws Exception {
+        insert.accept(1);
+        int withOne = countStatements(url);
+        insert.accept(9);
+        int withTen = countStatements(url);
+
+        assertThat(withTen).isEqualTo(withOne);
+        assertThat(withOne).as("select and count").isLessThanOrEqualTo(2);
+        assertThat(countStatements(url + "&count=none")).isEqualTo(1);
+    }
+
+    private int countStatements(String url) throws Exception {
+        em.flush();
+        em.clear();
+        statementCapture.clear();
+        restMockMvc.perform(get(url)).andExpect(status().isOk());
+        return statementCapture.getStatements().size();
+    }
+}
@@ -11,7 +11,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import ch.vaudoise.vaudoiseapi.exercice.IntegrationTest;
 import ch.vaudoise.vaudoiseapi.exercice.domain.Person;
 import ch.vaudoise.vaudoiseapi.exercice.repository.PersonRepository;
+import ch.vaudoise.vaudoiseapi.exercice.service.dto.ClientInfoDTO;
 import ch.vaudoise.vaudoiseapi.exercice.service.dto.PersonDTO;
+import ch.vaudoise.vaudoiseapi.exercice.service.dto.PersonUpdateDTO;
 import ch.vaudoise.vaudoiseapi.exercice.service.mapper.PersonMapper;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityManager;
@@ -168,6 +170,36 @@ class PersonResourceIT {
             .andExpect(jsonPath("$.[*].birthDate").value(hasItem(DEFAULT_BIRTH_DATE.toString())));
     }
 
+    @Test
+    @Transactional
+    void getAllPeopleWithoutCount() throws Exception {
+        // Initialize the database
+        insertedPerson = personRepository.saveAndFlush(person);
+
+        restPersonMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&count=none"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().exists("X-Has-Next-Page"))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(person.getId().toString())));
+    }
+
+    @Test
+    @Transactional
+    void getAllPeopleWithEstimatedCount() throws Exception {
+        restPersonMockMvc
+            .perform(get(ENTITY_API_URL + "?count=estimated"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().exists("X-Estimated-Total-Count"));
+    }
+
+    @Test
+    @Transactional
+    void getAllPeopleWithUnsupportedCount() throws Exception {
+        restPersonMockMvc.perform(get(ENTITY_API_URL + "?count=approximate")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getPerson() throws Exception {
@@ -341,6 +373,32 @@ class PersonResourceIT {
         assertPersonUpdatableFieldsEquals(partialUpdatedPerson, getPersistedPerson(partialUpdatedPerson));
     }
 
+    @Test
+    @Transactional
+    void patchPersonWithoutClientInfo() throws Exception {
+        // Initialize the database
+        insertedPerson = personRepository.saveAndFlush(person);
+
+        // Update the client info of a person that has none
+        ClientInfoDTO clientInfoDTO = new ClientInfoDTO();
+        clientInfoDTO.setName("BBBBBBBBBB");
+        PersonUpdateDTO personUpdateDTO = new PersonUpdateDTO();
+        personUpdateDTO.setId(person.getId());
+        personUpdateDTO.setClientInfo(clientInfoDTO);
+
+        restPersonMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, person.getId())
+                    .with(csrf())
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(personUpdateDTO))
+            )
+            .andExpect(status().isNotFound());
+
+        // Validate the Person in the database
+        assertThat(getPersistedPerson(person).getClientInfo()).isNull();
+    }
+
     @Test
     @Transactional
     void patchNonExistingPerson() throws Exception {
@@ -418,7 +476,9 @@ class PersonResourceIT {
         // Delete the person
         restPersonMockMvc
             .perform(delete(ENTITY_API_URL_ID, person.getId().toString()).with(csrf()).accept(MediaType.APPLICATION_JSON))
-            .andExpect(status().isNoContent());
+            .andExpect(status().isNoContent())
+            .andExpect(header().string("X-Deactivated-Contracts", "0"))
+            .andExpect(header().string("X-Deactivated-Client-Infos", "0"));
 
         // Validate the database contains one less item
         assertDecrementedRepositoryCount(databaseSizeBeforeDelete);